@@ -0,0 +1,354 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This GraphGenerators class builds synthetic flow networks for the benchmarks. Every
+ * generator takes the number of nodes, the number of edges and the range of the
+ * capacities, and always uses node 0 as the source and the last node as the sink.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphGenerators {
+
+    /**
+     * The shapes of graph the generators can build.
+     */
+    public enum Shape {
+        LAYERED, GRID, RANDOM_SPARSE, RANDOM_DENSE, BIPARTITE, AK;
+
+        /**
+         * Builds a graph of this shape.
+         *
+         * @param noOfNodes   The number of nodes of the graph.
+         * @param noOfEdges   The number of edges of the graph (ignored by GRID and AK,
+         *                    whose edges follow from the number of nodes).
+         * @param minCapacity The smallest capacity of an edge.
+         * @param maxCapacity The largest capacity of an edge.
+         * @param seed        The seed of the random number generator.
+         * @return ResidualGraph Returns the generated graph.
+         */
+        public ResidualGraph generate(int noOfNodes, int noOfEdges, int minCapacity,
+                                      int maxCapacity, long seed) {
+            switch (this) {
+                case LAYERED:
+                    return layered(noOfNodes, noOfEdges, minCapacity, maxCapacity, seed);
+                case GRID:
+                    return grid(noOfNodes, minCapacity, maxCapacity, seed);
+                case RANDOM_SPARSE:
+                    return randomSparse(noOfNodes, noOfEdges, minCapacity, maxCapacity, seed);
+                case RANDOM_DENSE:
+                    return randomDense(noOfNodes, noOfEdges, minCapacity, maxCapacity, seed);
+                case BIPARTITE:
+                    return bipartite(noOfNodes, noOfEdges, minCapacity, maxCapacity, seed);
+                default:
+                    return ak(noOfNodes, minCapacity, maxCapacity);
+            }
+        }
+    }
+
+    /**
+     * This EdgeList class collects the edges of a graph before it is built.
+     */
+    private static class EdgeList {
+        private final Random random;
+        private final int minCapacity;
+        private final int maxCapacity;
+        private int[] from;
+        private int[] to;
+        private int[] capacity;
+        private int size;
+
+        EdgeList(int expectedEdges, int minCapacity, int maxCapacity, long seed) {
+            this.random = new Random(seed);
+            this.minCapacity = minCapacity;
+            this.maxCapacity = maxCapacity;
+            int length = Math.max(16, expectedEdges);
+            from = new int[length];
+            to = new int[length];
+            capacity = new int[length];
+        }
+
+        void add(int u, int v, int c) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, 2 * size);
+                to = Arrays.copyOf(to, 2 * size);
+                capacity = Arrays.copyOf(capacity, 2 * size);
+            }
+            from[size] = u;
+            to[size] = v;
+            capacity[size] = c;
+            size++;
+        }
+
+        void add(int u, int v) {
+            add(u, v, randomCapacity());
+        }
+
+        int randomCapacity() {
+            long range = (long) maxCapacity - minCapacity + 1;
+            return minCapacity + (int) (random.nextDouble() * range);
+        }
+
+        ResidualGraph build(int noOfNodes) {
+            return new ArrayResidualGraph(noOfNodes, size, from, to, capacity);
+        }
+    }
+
+    /**
+     * Builds a layered graph: the inner nodes are split into about the square root of
+     * the number of nodes layers, and edges only go from one layer to the next. The
+     * source feeds every node of the first layer and every node of the last layer
+     * drains into the sink.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param noOfEdges   The number of edges between the layers.
+     * @param minCapacity The smallest capacity of an edge.
+     * @param maxCapacity The largest capacity of an edge.
+     * @param seed        The seed of the random number generator.
+     * @return ResidualGraph Returns the generated graph.
+     */
+    public static ResidualGraph layered(int noOfNodes, int noOfEdges, int minCapacity,
+                                        int maxCapacity, long seed) {
+        EdgeList edges = new EdgeList(noOfEdges + noOfNodes, minCapacity, maxCapacity, seed);
+        int inner = noOfNodes - 2;
+        int noOfLayers = Math.max(2, (int) Math.sqrt(inner));
+        int width = Math.max(1, inner / noOfLayers);
+        noOfLayers = (inner + width - 1) / width;
+        int sink = noOfNodes - 1;
+
+        for (int i = 0; i < width && i < inner; i++) {
+            edges.add(0, 1 + i);
+        }
+        for (int i = (noOfLayers - 1) * width; i < inner; i++) {
+            edges.add(1 + i, sink);
+        }
+        int perLayer = Math.max(1, noOfEdges / Math.max(1, noOfLayers - 1));
+        for (int layer = 0; layer + 1 < noOfLayers; layer++) {
+            int start = layer * width;
+            int nextStart = start + width;
+            int nextWidth = Math.min(width, inner - nextStart);
+            for (int i = 0; i < perLayer; i++) {
+                int u = 1 + start + edges.random.nextInt(width);
+                int v = 1 + nextStart + edges.random.nextInt(nextWidth);
+                edges.add(u, v);
+            }
+        }
+        return edges.build(noOfNodes);
+    }
+
+    /**
+     * Builds a square 4-connected grid with edges in both directions between
+     * neighbouring nodes. The source feeds the first column and the last column
+     * drains into the sink, so the grid has about 4 edges per node.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param minCapacity The smallest capacity of an edge.
+     * @param maxCapacity The largest capacity of an edge.
+     * @param seed        The seed of the random number generator.
+     * @return ResidualGraph Returns the generated graph.
+     */
+    public static ResidualGraph grid(int noOfNodes, int minCapacity, int maxCapacity,
+                                     long seed) {
+        int side = Math.max(1, (int) Math.sqrt(noOfNodes - 2));
+        int noOfCells = side * side;
+        EdgeList edges = new EdgeList(4 * noOfCells + 2 * side, minCapacity, maxCapacity,
+                seed);
+        int sink = noOfNodes - 1;
+
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int cell = 1 + row * side + col;
+                if (col + 1 < side) {
+                    edges.add(cell, cell + 1);
+                    edges.add(cell + 1, cell);
+                }
+                if (row + 1 < side) {
+                    edges.add(cell, cell + side);
+                    edges.add(cell + side, cell);
+                }
+            }
+            edges.add(0, 1 + row * side);
+            edges.add(1 + row * side + side - 1, sink);
+        }
+        return edges.build(noOfNodes);
+    }
+
+    /**
+     * Builds an image segmentation grid. The pixels get a random brightness that is
+     * smoothed over their neighbours, so the grid holds bright and dark regions like an
+     * image. Bright pixels are joined strongly to the source and dark ones to the sink,
+     * and neighbours of similar brightness are joined strongly to each other.
+     *
+     * @param width        The number of pixels in a row.
+     * @param height       The number of rows.
+     * @param connectivity The number of neighbours of a pixel, 4 or 8.
+     * @param seed         The seed of the random number generator.
+     * @return GridGraph Returns the generated grid.
+     */
+    public static GridGraph segmentation(int width, int height, int connectivity, long seed) {
+        Random random = new Random(seed);
+        int[] brightness = new int[width * height];
+        for (int i = 0; i < brightness.length; i++) {
+            brightness[i] = random.nextInt(256);
+        }
+        // Smooth the noise a few times to get regions
+        for (int pass = 0; pass < 4; pass++) {
+            int[] smoothed = new int[brightness.length];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int sum = 0;
+                    int count = 0;
+                    for (int dy = -2; dy <= 2; dy++) {
+                        for (int dx = -2; dx <= 2; dx++) {
+                            int nx = x + dx;
+                            int ny = y + dy;
+                            if (nx >= 0 && nx < width && ny >= 0 && ny < height) {
+                                sum += brightness[ny * width + nx];
+                                count++;
+                            }
+                        }
+                    }
+                    smoothed[y * width + x] = sum / count;
+                }
+            }
+            brightness = smoothed;
+        }
+
+        GridGraph grid = new GridGraph(width, height, connectivity);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int value = brightness[y * width + x];
+                grid.setTerminalCapacities(x, y, value, 255 - value);
+                for (int direction = 0; direction < connectivity; direction++) {
+                    int neighbour = grid.neighbour(x, y, direction);
+                    if (neighbour >= 0) {
+                        int difference = Math.abs(value - brightness[neighbour]);
+                        grid.setNeighbourCapacity(x, y, direction, 1 + 64 / (1 + difference));
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Builds a sparse random graph by drawing the end nodes of every edge at random.
+     * Parallel edges may appear, self loops never do.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param noOfEdges   The number of edges of the graph.
+     * @param minCapacity The smallest capacity of an edge.
+     * @param maxCapacity The largest capacity of an edge.
+     * @param seed        The seed of the random number generator.
+     * @return ResidualGraph Returns the generated graph.
+     */
+    public static ResidualGraph randomSparse(int noOfNodes, int noOfEdges, int minCapacity,
+                                             int maxCapacity, long seed) {
+        EdgeList edges = new EdgeList(noOfEdges, minCapacity, maxCapacity, seed);
+        for (int edge = 0; edge < noOfEdges; edge++) {
+            int u = edges.random.nextInt(noOfNodes);
+            int v = edges.random.nextInt(noOfNodes - 1);
+            edges.add(u, v >= u ? v + 1 : v); // Skip self loops
+        }
+        return edges.build(noOfNodes);
+    }
+
+    /**
+     * Builds a dense random graph by keeping every ordered pair of nodes as an edge
+     * with the probability that gives the requested number of edges on average. No
+     * parallel edges appear.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param noOfEdges   The expected number of edges of the graph.
+     * @param minCapacity The smallest capacity of an edge.
+     * @param maxCapacity The largest capacity of an edge.
+     * @param seed        The seed of the random number generator.
+     * @return ResidualGraph Returns the generated graph.
+     */
+    public static ResidualGraph randomDense(int noOfNodes, int noOfEdges, int minCapacity,
+                                            int maxCapacity, long seed) {
+        EdgeList edges = new EdgeList(noOfEdges, minCapacity, maxCapacity, seed);
+        double probability = (double) noOfEdges / ((double) noOfNodes * (noOfNodes - 1));
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int v = 0; v < noOfNodes; v++) {
+                if (u != v && edges.random.nextDouble() < probability) {
+                    edges.add(u, v);
+                }
+            }
+        }
+        return edges.build(noOfNodes);
+    }
+
+    /**
+     * Builds a bipartite graph: the inner nodes are split into a left and a right half
+     * joined by random edges. The source feeds every left node and every right node
+     * drains into the sink.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param noOfEdges   The number of edges between the two halves.
+     * @param minCapacity The smallest capacity of an edge.
+     * @param maxCapacity The largest capacity of an edge.
+     * @param seed        The seed of the random number generator.
+     * @return ResidualGraph Returns the generated graph.
+     */
+    public static ResidualGraph bipartite(int noOfNodes, int noOfEdges, int minCapacity,
+                                          int maxCapacity, long seed) {
+        EdgeList edges = new EdgeList(noOfEdges + noOfNodes, minCapacity, maxCapacity, seed);
+        int inner = noOfNodes - 2;
+        int left = Math.max(1, inner / 2);
+        int right = Math.max(1, inner - left);
+        int sink = noOfNodes - 1;
+
+        for (int i = 0; i < left; i++) {
+            edges.add(0, 1 + i);
+        }
+        for (int i = 0; i < right; i++) {
+            edges.add(1 + left + i, sink);
+        }
+        for (int edge = 0; edge < noOfEdges; edge++) {
+            edges.add(1 + edges.random.nextInt(left), 1 + left + edges.random.nextInt(right));
+        }
+        return edges.build(noOfNodes);
+    }
+
+    /**
+     * Builds a hard instance in the style of the AK generator of Cherkassky and
+     * Goldberg. A long path with falling capacities leaks one unit into the sink at
+     * every node, and a second path of unit edges runs beside it. Augmenting path
+     * algorithms need a separate phase for almost every node, and push-relabel keeps
+     * relabeling the nodes of the long path.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param minCapacity The capacity of the leaking edges.
+     * @param maxCapacity The largest capacity of the long path.
+     * @return ResidualGraph Returns the generated graph.
+     */
+    public static ResidualGraph ak(int noOfNodes, int minCapacity, int maxCapacity) {
+        int k = Math.max(1, (noOfNodes - 2) / 2);
+        EdgeList edges = new EdgeList(4 * k + 2, minCapacity, maxCapacity, 0);
+        int sink = noOfNodes - 1;
+        int leak = Math.max(1, minCapacity);
+        int top = Math.max(leak * k, Math.min(maxCapacity, Integer.MAX_VALUE / 2));
+
+        // The long path 1 .. k, each node leaking into the sink
+        edges.add(0, 1, top);
+        for (int i = 1; i <= k; i++) {
+            if (i < k) {
+                edges.add(i, i + 1, Math.max(leak, top - i * leak));
+            }
+            edges.add(i, sink, leak);
+        }
+        // The path of unit edges k + 1 .. 2k beside it, crossing over at every node
+        edges.add(0, k + 1, leak);
+        for (int i = k + 1; i <= 2 * k; i++) {
+            if (i < 2 * k) {
+                edges.add(i, i + 1, leak);
+            }
+            edges.add(i, i - k, leak);
+        }
+        return edges.build(noOfNodes);
+    }
+
+}
@@ -0,0 +1,62 @@
+import java.util.Arrays;
+
+/**
+ * This GridBenchmark class compares the solvers on image segmentation grids, where the
+ * BoykovKolmogorovSolver is expected to be the fastest. Each solver solves the same
+ * grid several times and the median time is reported.
+ *
+ * Usage: java GridBenchmark [width] [height] [connectivity] [repetitions]
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GridBenchmark {
+
+    /**
+     * Solves the grid several times and returns the median time taken.
+     *
+     * @param solver      The solver to measure.
+     * @param grid        The grid to solve.
+     * @param repetitions The number of measured solves.
+     * @return long Returns the median time of a solve in microseconds.
+     */
+    public static long medianMicroseconds(MaxFlowSolver solver, GridGraph grid,
+                                          int repetitions) {
+        solver.maxFlow(grid, grid.getSource(), grid.getSink()); // Warm up
+        long[] times = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            long startTime = System.nanoTime();
+            solver.maxFlow(grid, grid.getSource(), grid.getSink());
+            times[i] = (System.nanoTime() - startTime) / 1000;
+        }
+        Arrays.sort(times);
+        return times[repetitions / 2];
+    }
+
+    /**
+     * This is the main method of the benchmark.
+     *
+     * @param args The width, height, connectivity and repetitions (all optional).
+     */
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        int connectivity = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int repetitions = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        GridGraph grid = GraphGenerators.segmentation(width, height, connectivity, 42);
+        System.out.println("Pixels: " + width + " x " + height + ", connectivity: " +
+                connectivity + ", maximum flow: " +
+                new BoykovKolmogorovSolver().maxFlow(grid, grid.getSource(), grid.getSink()));
+
+        MaxFlowSolver[] solvers = {new BoykovKolmogorovSolver(), new DinicSolver(),
+                new PushRelabelSolver()};
+        System.out.println("Solver\tMicroseconds");
+        for (MaxFlowSolver solver : solvers) {
+            System.out.println(solver.getClass().getSimpleName() + "\t" +
+                    medianMicroseconds(solver, grid, repetitions));
+        }
+    }
+
+}
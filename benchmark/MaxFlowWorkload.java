@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import bench.Workload;
+
+/**
+ * This MaxFlowWorkload class runs the MaximumFlowNetwork methods measured by the JMH
+ * benchmarks on a graph built by GraphGenerators.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class MaxFlowWorkload implements Workload {
+    private ResidualGraph graph; // The generated graph
+    private MaximumFlowNetwork network; // A network that has solved the graph
+    private int sink; // The sink node of the generated graph
+    private int maximumFlow; // The maximum flow of the generated graph
+    private final Discard discard = new Discard(); // Where the result is written
+
+    @Override
+    public void setUp(String shape, int noOfNodes, int noOfEdges, int minCapacity,
+                      int maxCapacity) {
+        graph = GraphGenerators.Shape.valueOf(shape).generate(noOfNodes, noOfEdges,
+                minCapacity, maxCapacity, 42);
+        sink = noOfNodes - 1;
+        network = new MaximumFlowNetwork(noOfNodes);
+        maximumFlow = network.fordFulkerson(graph, 0, sink);
+    }
+
+    @Override
+    public int fordFulkerson() {
+        return network.fordFulkerson(graph, 0, sink);
+    }
+
+    @Override
+    public boolean bfs() {
+        return network.bfs(0, sink, graph);
+    }
+
+    @Override
+    public long writeResult() {
+        discard.written = 0;
+        try {
+            FlowResultWriter.write(discard, FlowResultWriter.Format.EDGE_LIST,
+                    new FlowProblem(graph, 0, sink, 0), maximumFlow);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return discard.written;
+    }
+
+    @Override
+    public boolean validateEdges() {
+        return network.validateEdges(0, sink);
+    }
+
+    /**
+     * This Discard class is a channel that counts the bytes written to it and drops
+     * them, so writeResult measures the writer and not a disk.
+     */
+    private static final class Discard implements WritableByteChannel {
+        private long written; // The number of bytes written since the last reset
+
+        @Override
+        public int write(ByteBuffer buffer) {
+            int length = buffer.remaining();
+            buffer.position(buffer.limit());
+            written += length;
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+import java.util.Arrays;
+
+/**
+ * This ParallelScalingBenchmark class measures how the ParallelPushRelabelSolver scales
+ * with the number of worker threads. It solves the same random graph with 1, 2, 4, 8,
+ * 16 and 32 threads and reports the speedup over a single thread.
+ *
+ * Usage: java ParallelScalingBenchmark [noOfNodes] [edgesPerNode] [repetitions]
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ParallelScalingBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+
+    /**
+     * Solves the graph several times and returns the median time taken.
+     *
+     * @param solver      The solver to measure.
+     * @param graph       The graph to solve.
+     * @param repetitions The number of measured solves.
+     * @return long Returns the median time of a solve in microseconds.
+     */
+    public static long medianMicroseconds(MaxFlowSolver solver, ResidualGraph graph,
+                                          int repetitions) {
+        int sink = graph.getNoOfNodes() - 1;
+        solver.maxFlow(graph, 0, sink); // Warm up
+        long[] times = new long[repetitions];
+        for (int i = 0; i < repetitions; i++) {
+            long startTime = System.nanoTime();
+            solver.maxFlow(graph, 0, sink);
+            times[i] = (System.nanoTime() - startTime) / 1000;
+        }
+        Arrays.sort(times);
+        return times[repetitions / 2];
+    }
+
+    /**
+     * This is the main method of the benchmark.
+     *
+     * @param args The number of nodes, edges per node and repetitions (all optional).
+     */
+    public static void main(String[] args) {
+        int noOfNodes = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int edgesPerNode = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ResidualGraph graph = GraphGenerators.randomSparse(noOfNodes,
+                noOfNodes * edgesPerNode, 1, 1000, 42);
+        System.out.println("Nodes: " + noOfNodes + ", edges: " + graph.getNoOfEdges() +
+                ", processors: " + Runtime.getRuntime().availableProcessors());
+
+        long sequential = medianMicroseconds(new PushRelabelSolver(), graph, repetitions);
+        System.out.println("Sequential push-relabel: " + sequential + " microseconds");
+
+        long baseline = 0;
+        System.out.println("Threads\tMicroseconds\tSpeedup");
+        for (int noOfThreads : THREAD_COUNTS) {
+            long time;
+            try (ParallelPushRelabelSolver solver = new ParallelPushRelabelSolver(noOfThreads)) {
+                time = medianMicroseconds(solver, graph, repetitions);
+            }
+            if (noOfThreads == 1) {
+                baseline = time;
+            }
+            System.out.printf("%d\t%d\t%.2f%n", noOfThreads, time, (double) baseline / time);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * This QueryLoadGenerator class measures the MaxFlowService under load. It shares one
+ * random graph between the query threads, keeps a fixed number of queries between
+ * random pairs of nodes in flight and reports the median and 99th percentile latency
+ * of a query together with the number of queries answered per second.
+ *
+ * Usage: java QueryLoadGenerator [noOfNodes] [edgesPerNode] [noOfThreads] [noOfQueries]
+ * [inFlight]
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class QueryLoadGenerator {
+
+    /**
+     * Sends the queries to the service and records the latency of each of them.
+     *
+     * @param service     The service answering the queries.
+     * @param noOfQueries The number of queries to send.
+     * @param inFlight    The largest number of queries waiting for an answer at once.
+     * @param seed        The seed used to choose the source and sink of each query.
+     * @return long[] Returns the latency of each query in microseconds.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public static long[] run(MaxFlowService service, int noOfQueries, int inFlight, long seed)
+            throws InterruptedException {
+        Random random = new Random(seed);
+        int noOfNodes = service.getNoOfNodes();
+        long[] latencies = new long[noOfQueries];
+        Semaphore permits = new Semaphore(inFlight);
+
+        for (int query = 0; query < noOfQueries; query++) {
+            int source = random.nextInt(noOfNodes);
+            int sink = random.nextInt(noOfNodes - 1);
+            sink = sink >= source ? sink + 1 : sink;
+            permits.acquire();
+            long startTime = System.nanoTime();
+            int index = query;
+            CompletableFuture<Integer> result = service.maxFlow(source, sink);
+            result.whenComplete((flow, error) -> {
+                latencies[index] = (System.nanoTime() - startTime) / 1000;
+                permits.release();
+            });
+        }
+        permits.acquire(inFlight); // Waits for the last queries
+        return latencies;
+    }
+
+    /**
+     * @param sorted      The sorted latencies.
+     * @param probability The fraction of latencies at or below the result.
+     * @return long Returns the latency below which the given fraction of queries fall.
+     */
+    public static long percentile(long[] sorted, double probability) {
+        int index = (int) Math.ceil(probability * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * This is the main method of the load generator.
+     *
+     * @param args The number of nodes, edges per node, threads, queries and queries in
+     *             flight (all optional).
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int noOfNodes = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int edgesPerNode = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int noOfThreads = args.length > 2 ? Integer.parseInt(args[2]) :
+                Runtime.getRuntime().availableProcessors();
+        int noOfQueries = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int inFlight = args.length > 4 ? Integer.parseInt(args[4]) : 2 * noOfThreads;
+
+        ResidualGraph graph = GraphGenerators.randomSparse(noOfNodes,
+                noOfNodes * edgesPerNode, 1, 1000, 42);
+        System.out.println("Nodes: " + noOfNodes + ", edges: " + graph.getNoOfEdges() +
+                ", threads: " + noOfThreads + ", in flight: " + inFlight);
+
+        try (MaxFlowService service = new MaxFlowService(graph, DinicSolver::new,
+                noOfThreads)) {
+            run(service, Math.max(1, noOfQueries / 10), inFlight, 1); // Warm up
+
+            long startTime = System.nanoTime();
+            long[] latencies = run(service, noOfQueries, inFlight, 2);
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.println("Queries: " + noOfQueries);
+            System.out.printf("Queries per second: %.1f%n", noOfQueries / seconds);
+            System.out.println("p50 latency: " + percentile(latencies, 0.50) + " microseconds");
+            System.out.println("p99 latency: " + percentile(latencies, 0.99) + " microseconds");
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * This SolverSelectionBenchmark class calibrates the thresholds of AdaptiveSolver. It
+ * solves every generated shape at a few sizes and capacity ranges with every algorithm
+ * the AdaptiveSolver chooses from, and prints the median time of each next to the
+ * statistics of the graph, the fastest algorithm and the one AdaptiveSolver chooses.
+ * A choice that is more than 1.5 times slower than the fastest algorithm is marked.
+ * The random sparse graphs are also measured with 1 and 2 edges per node, where most
+ * nodes have 2 to 4 neighbours as in a grid.
+ *
+ * Usage: java SolverSelectionBenchmark [maxNodes] [edgesPerNode] [repetitions]
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class SolverSelectionBenchmark {
+    // The capacity ranges measured, as {minCapacity, maxCapacity}
+    private static final int[][] CAPACITIES = {{1, 1}, {1, 1000}, {1, 1 << 30}};
+    // The low edges per node also measured on the random sparse graphs
+    private static final int[] LOW_DEGREES = {1, 2};
+
+    /**
+     * This is the main method of the benchmark.
+     *
+     * @param args The largest number of nodes, the edges per node and the repetitions
+     *             (all optional).
+     */
+    public static void main(String[] args) {
+        int maxNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int edgesPerNode = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        AdaptiveSolver.Engine[] engines = AdaptiveSolver.Engine.values();
+
+        StringBuilder header = new StringBuilder("Shape\tCapacities\tStatistics");
+        for (AdaptiveSolver.Engine engine : engines) {
+            header.append('\t').append(engine);
+        }
+        System.out.println(header.append("\tFastest\tSelected"));
+
+        for (GraphGenerators.Shape shape : GraphGenerators.Shape.values()) {
+            for (int noOfNodes = 1000; noOfNodes <= maxNodes; noOfNodes *= 10) {
+                // Dense graphs are only measured at a size whose edges fit in memory
+                boolean dense = shape == GraphGenerators.Shape.RANDOM_DENSE;
+                if (dense && noOfNodes > 1000) {
+                    break;
+                }
+                int[] degrees = shape == GraphGenerators.Shape.RANDOM_SPARSE ?
+                        new int[]{LOW_DEGREES[0], LOW_DEGREES[1], edgesPerNode} :
+                        new int[]{edgesPerNode};
+                for (int degree : degrees) {
+                    int noOfEdges = dense ? noOfNodes * (noOfNodes - 1) / 10 :
+                            noOfNodes * degree;
+                    for (int[] capacities : CAPACITIES) {
+                        ResidualGraph graph = shape.generate(noOfNodes, noOfEdges,
+                                capacities[0], capacities[1], 42);
+                        measure(shape, capacities, graph, engines, repetitions);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves one graph with every algorithm and prints a row of the table.
+     *
+     * @param shape       The shape of the graph.
+     * @param capacities  The smallest and largest capacity of the graph.
+     * @param graph       The graph to solve.
+     * @param engines     The algorithms to measure.
+     * @param repetitions The number of measured solves of each algorithm.
+     */
+    private static void measure(GraphGenerators.Shape shape, int[] capacities,
+                                ResidualGraph graph, AdaptiveSolver.Engine[] engines,
+                                int repetitions) {
+        GraphStatistics statistics = GraphStatistics.of(graph, 0, graph.getNoOfNodes() - 1);
+        AdaptiveSolver.Engine selected = AdaptiveSolver.select(statistics);
+        StringBuilder row = new StringBuilder(shape + "\t" + capacities[0] + "-" +
+                capacities[1] + "\t" + statistics);
+        long[] times = new long[engines.length];
+        int fastest = 0;
+        for (int i = 0; i < engines.length; i++) {
+            times[i] = ParallelScalingBenchmark.medianMicroseconds(engines[i].create(),
+                    graph, repetitions);
+            if (times[i] < times[fastest]) {
+                fastest = i;
+            }
+            row.append('\t').append(times[i]);
+        }
+        row.append('\t').append(engines[fastest]).append('\t').append(selected);
+        if (times[selected.ordinal()] > 1.5 * times[fastest]) {
+            row.append(" (slow)");
+        }
+        System.out.println(row);
+    }
+
+}
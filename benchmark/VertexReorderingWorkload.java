@@ -0,0 +1,80 @@
+import java.util.Random;
+
+import bench.ReorderingWorkload;
+
+/**
+ * This VertexReorderingWorkload class solves a graph built by GraphGenerators after its
+ * nodes have been numbered at random and then reordered by a VertexReordering.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class VertexReorderingWorkload implements ReorderingWorkload {
+    private ResidualGraph shuffled; // The generated graph with its nodes numbered at random
+    private int shuffledSource; // The source node of the shuffled graph
+    private VertexReordering.Order order; // The order measured, or null for none
+    private ResidualGraph graph; // The graph solved
+    private int source; // The source node of the graph solved
+    private int sink; // The sink node of the graph solved
+    private MaxFlowSolver solver; // The solver measured
+
+    @Override
+    public void setUp(String shape, int noOfNodes, int noOfEdges, String order,
+                      String solver) {
+        ResidualGraph generated = GraphGenerators.Shape.valueOf(shape).generate(noOfNodes,
+                noOfEdges, 1, 1000, 42);
+
+        // Number the nodes at random, as the lines of a file would
+        int[] randomNode = new int[noOfNodes];
+        for (int u = 0; u < noOfNodes; u++) {
+            randomNode[u] = u;
+        }
+        Random random = new Random(42);
+        for (int u = noOfNodes - 1; u > 0; u--) {
+            int v = random.nextInt(u + 1);
+            int node = randomNode[u];
+            randomNode[u] = randomNode[v];
+            randomNode[v] = node;
+        }
+        shuffled = new VertexReordering(generated, randomNode).getReorderedGraph();
+        shuffledSource = randomNode[0];
+        int shuffledSink = randomNode[noOfNodes - 1];
+
+        if ("NONE".equals(order)) {
+            graph = shuffled;
+            source = shuffledSource;
+            sink = shuffledSink;
+        } else {
+            this.order = VertexReordering.Order.valueOf(order);
+            VertexReordering reordering = new VertexReordering(shuffled, shuffledSource,
+                    this.order);
+            graph = reordering.getReorderedGraph();
+            source = reordering.getNewNode(shuffledSource);
+            sink = reordering.getNewNode(shuffledSink);
+        }
+
+        switch (solver) {
+            case "DINIC":
+                this.solver = new DinicSolver();
+                break;
+            case "PUSH_RELABEL":
+                this.solver = new PushRelabelSolver();
+                break;
+            default:
+                this.solver = new BoykovKolmogorovSolver();
+        }
+        this.solver.maxFlow(graph, source, sink); // Sizes the scratch arrays of the solver
+    }
+
+    @Override
+    public int solve() {
+        return solver.maxFlow(graph, source, sink);
+    }
+
+    @Override
+    public Object reorder() {
+        return order == null ? shuffled : new VertexReordering(shuffled, shuffledSource, order);
+    }
+
+}
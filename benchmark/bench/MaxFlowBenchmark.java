@@ -0,0 +1,87 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This MaxFlowBenchmark class measures the throughput of the MaximumFlowNetwork methods
+ * with JMH on the synthetic graphs of GraphGenerators. Run it with the gc profiler to
+ * see the allocation rate of each method as well:
+ *
+ * java -jar target/benchmarks.jar MaxFlowBenchmark -prof gc
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MaxFlowBenchmark {
+
+    @Param({"LAYERED", "GRID", "RANDOM_SPARSE", "RANDOM_DENSE", "BIPARTITE", "AK"})
+    public String shape;
+
+    @Param({"1000", "4000"})
+    public int noOfNodes;
+
+    // Edges per node of the sparse shapes, the dense shape uses a quarter of all pairs
+    @Param({"8"})
+    public int edgesPerNode;
+
+    @Param({"1"})
+    public int minCapacity;
+
+    @Param({"1", "1000", "1000000000"})
+    public int maxCapacity;
+
+    private Workload workload; // Runs the measured methods on the generated graph
+
+    /**
+     * Generates the graph and solves it once, so the residual graph holds a flow for
+     * the writeResult and validateEdges benchmarks.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        int noOfEdges = "RANDOM_DENSE".equals(shape)
+                ? noOfNodes * (noOfNodes - 1) / 4 : noOfNodes * edgesPerNode;
+        workload = Workload.load("MaxFlowWorkload");
+        workload.setUp(shape, noOfNodes, noOfEdges, minCapacity, maxCapacity);
+    }
+
+    @Benchmark
+    public int fordFulkerson() {
+        return workload.fordFulkerson();
+    }
+
+    @Benchmark
+    public boolean bfs() {
+        return workload.bfs();
+    }
+
+    @Benchmark
+    public long writeResult() {
+        return workload.writeResult();
+    }
+
+    @Benchmark
+    public boolean validateEdges() {
+        return workload.validateEdges();
+    }
+
+}
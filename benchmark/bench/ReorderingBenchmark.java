@@ -0,0 +1,78 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This ReorderingBenchmark class measures the effect of VertexReordering on the time
+ * taken by the solvers. The nodes of each generated graph are first numbered at random,
+ * the way the lines of a file would number them, and then reordered, so NONE is the
+ * time taken on the graph as it was read. The reorder benchmark measures the cost of the
+ * reordering itself, which is paid once per solve.
+ *
+ * The cache misses behind the difference are counted per operation by the perfnorm
+ * profiler, which needs Linux perf (L1-dcache-load-misses and LLC-load-misses):
+ *
+ * java -jar target/benchmarks.jar ReorderingBenchmark -prof perfnorm
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ReorderingBenchmark {
+
+    @Param({"GRID", "LAYERED", "RANDOM_SPARSE"})
+    public String shape;
+
+    @Param({"1000000"})
+    public int noOfNodes;
+
+    @Param({"8"})
+    public int edgesPerNode;
+
+    @Param({"NONE", "BFS", "REVERSE_CUTHILL_MCKEE", "DEGREE"})
+    public String order;
+
+    @Param({"DINIC", "PUSH_RELABEL"})
+    public String solver;
+
+    private ReorderingWorkload workload; // Solves the reordered graph
+
+    /**
+     * Generates, shuffles and reorders the graph.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = ReorderingWorkload.load("VertexReorderingWorkload");
+        workload.setUp(shape, noOfNodes, noOfNodes * edgesPerNode, order, solver);
+    }
+
+    @Benchmark
+    public int solve() {
+        return workload.solve();
+    }
+
+    @Benchmark
+    public Object reorder() {
+        return workload.reorder();
+    }
+
+}
@@ -0,0 +1,52 @@
+package bench;
+
+/**
+ * This ReorderingWorkload interface lets ReorderingBenchmark, which JMH requires to be in
+ * a named package, solve graphs reordered by the VertexReordering class of the default
+ * package. The class implementing it is loaded by name, as for Workload.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public interface ReorderingWorkload {
+
+    /**
+     * Generates the graph to benchmark, numbers its nodes at random the way the lines of
+     * a file would, and reorders them in the given order.
+     *
+     * @param shape     The name of the GraphGenerators shape to build.
+     * @param noOfNodes The number of nodes of the graph.
+     * @param noOfEdges The number of edges of the graph.
+     * @param order     The name of the VertexReordering order, or NONE to keep the
+     *                  random numbers.
+     * @param solver    The solver to run: DINIC, PUSH_RELABEL or BOYKOV_KOLMOGOROV.
+     */
+    void setUp(String shape, int noOfNodes, int noOfEdges, String order, String solver);
+
+    /**
+     * @return int Returns the maximum flow of the reordered graph.
+     */
+    int solve();
+
+    /**
+     * @return Object Returns a new reordering of the randomly numbered graph.
+     */
+    Object reorder();
+
+    /**
+     * Loads the implementation of this interface from the default package.
+     *
+     * @param className The name of the implementing class.
+     * @return ReorderingWorkload Returns a new instance of the class.
+     */
+    static ReorderingWorkload load(String className) {
+        try {
+            return (ReorderingWorkload) Class.forName(className).getConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load the workload " + className, e);
+        }
+    }
+
+}
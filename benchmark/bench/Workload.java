@@ -0,0 +1,62 @@
+package bench;
+
+/**
+ * This Workload interface lets the JMH benchmarks, which JMH requires to be in a named
+ * package, call the application classes that live in the default package. The class
+ * implementing it is loaded by name and is the only class that touches them.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public interface Workload {
+
+    /**
+     * Generates the graph to benchmark and solves it once.
+     *
+     * @param shape       The name of the GraphGenerators shape to build.
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param noOfEdges   The number of edges of the graph.
+     * @param minCapacity The smallest capacity of an edge.
+     * @param maxCapacity The largest capacity of an edge.
+     */
+    void setUp(String shape, int noOfNodes, int noOfEdges, int minCapacity, int maxCapacity);
+
+    /**
+     * @return int Returns the maximum flow found by fordFulkerson.
+     */
+    int fordFulkerson();
+
+    /**
+     * @return boolean Returns the result of a single bfs from the source to the sink.
+     */
+    boolean bfs();
+
+    /**
+     * Writes the flow and the minimum cut with FlowResultWriter to a channel that drops
+     * them.
+     *
+     * @return long Returns the number of bytes written.
+     */
+    long writeResult();
+
+    /**
+     * @return boolean Returns the result of validateEdges.
+     */
+    boolean validateEdges();
+
+    /**
+     * Loads the implementation of this interface from the default package.
+     *
+     * @param className The name of the implementing class.
+     * @return Workload Returns a new instance of the class.
+     */
+    static Workload load(String className) {
+        try {
+            return (Workload) Class.forName(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load the workload " + className, e);
+        }
+    }
+
+}
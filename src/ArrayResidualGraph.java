@@ -0,0 +1,197 @@
+/**
+ * This ArrayResidualGraph class keeps the CSR arrays of a residual graph in int arrays
+ * on the heap.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ArrayResidualGraph extends ResidualGraph {
+    private final int noOfNodes; // The number of nodes of the graph
+    private final int[] offsets; // Arcs of node u are stored from offsets[u] to offsets[u + 1]
+    private final int[] forwardEnds; // Forward arcs of node u end before forwardEnds[u]
+    private final int[] targets; // The node each arc points to
+    private final int[] reverses; // The paired arc pointing in the opposite direction
+    private final int[] capacities; // Capacity of each arc (0 for the reverse arcs)
+    private final int[] residuals; // Remaining capacity of each arc
+
+    /**
+     * This is the constructor of ArrayResidualGraph class. It builds the CSR arrays from
+     * a list of edges using a counting sort over the nodes.
+     *
+     * @param noOfNodes The number of nodes of the given graph.
+     * @param noOfEdges The number of edges held in the from, to and capacity arrays.
+     * @param from      The start node of each edge.
+     * @param to        The end node of each edge.
+     * @param capacity  The capacity of each edge.
+     */
+    public ArrayResidualGraph(int noOfNodes, int noOfEdges, int[] from, int[] to,
+                              int[] capacity) {
+        this.noOfNodes = noOfNodes;
+        offsets = new int[noOfNodes + 1];
+        forwardEnds = new int[noOfNodes];
+        targets = new int[2 * noOfEdges];
+        reverses = new int[2 * noOfEdges];
+        capacities = new int[2 * noOfEdges];
+        residuals = new int[2 * noOfEdges];
+
+        // Count the forward (outgoing) and reverse (incoming) arcs of every node
+        int[] outDegree = new int[noOfNodes];
+        int[] inDegree = new int[noOfNodes];
+        for (int edge = 0; edge < noOfEdges; edge++) {
+            outDegree[from[edge]]++;
+            inDegree[to[edge]]++;
+        }
+        for (int u = 0; u < noOfNodes; u++) {
+            offsets[u + 1] = offsets[u] + outDegree[u] + inDegree[u];
+            forwardEnds[u] = offsets[u] + outDegree[u];
+        }
+
+        // Next free forward and reverse slot of each node
+        int[] nextForward = new int[noOfNodes];
+        int[] nextReverse = new int[noOfNodes];
+        for (int u = 0; u < noOfNodes; u++) {
+            nextForward[u] = offsets[u];
+            nextReverse[u] = forwardEnds[u];
+        }
+
+        // Place each edge as a forward arc and its paired reverse arc
+        for (int edge = 0; edge < noOfEdges; edge++) {
+            int u = from[edge];
+            int v = to[edge];
+            int forward = nextForward[u]++;
+            int reverse = nextReverse[v]++;
+            targets[forward] = v;
+            targets[reverse] = u;
+            reverses[forward] = reverse;
+            reverses[reverse] = forward;
+            capacities[forward] = capacity[edge];
+        }
+        reset();
+    }
+
+    /**
+     * This is the copy constructor of ArrayResidualGraph class. It copies the arcs,
+     * capacities and residual capacities of any residual graph onto the heap, keeping
+     * the numbering of the arcs.
+     *
+     * @param graph The graph to copy.
+     */
+    public ArrayResidualGraph(ResidualGraph graph) {
+        noOfNodes = graph.getNoOfNodes();
+        int noOfArcs = graph.getNoOfArcs();
+        offsets = new int[noOfNodes + 1];
+        forwardEnds = new int[noOfNodes];
+        targets = new int[noOfArcs];
+        reverses = new int[noOfArcs];
+        capacities = new int[noOfArcs];
+        residuals = new int[noOfArcs];
+        for (int u = 0; u < noOfNodes; u++) {
+            offsets[u] = graph.firstArc(u);
+            forwardEnds[u] = graph.forwardEnd(u);
+        }
+        offsets[noOfNodes] = noOfArcs;
+        for (int arc = 0; arc < noOfArcs; arc++) {
+            targets[arc] = graph.target(arc);
+            reverses[arc] = graph.reverse(arc);
+            capacities[arc] = graph.capacity(arc);
+            residuals[arc] = graph.residual(arc);
+        }
+    }
+
+    /**
+     * This constructor builds a workspace that shares the arcs and capacities of
+     * another graph and only has residual capacities of its own.
+     *
+     * @param shared The graph whose arcs and capacities are shared.
+     */
+    private ArrayResidualGraph(ArrayResidualGraph shared) {
+        noOfNodes = shared.noOfNodes;
+        offsets = shared.offsets;
+        forwardEnds = shared.forwardEnds;
+        targets = shared.targets;
+        reverses = shared.reverses;
+        capacities = shared.capacities;
+        residuals = new int[capacities.length];
+        reset();
+    }
+
+    /**
+     * Builds a graph without flow that shares the arcs and capacities of this graph and
+     * only allocates its own residual capacities, so several solves of the same graph
+     * can run at once. The capacities of a workspace must not be changed, since that
+     * would change them for every graph sharing them.
+     *
+     * @return ArrayResidualGraph Returns the new workspace.
+     */
+    public ArrayResidualGraph newWorkspace() {
+        return new ArrayResidualGraph(this);
+    }
+
+    @Override
+    public void reset() {
+        System.arraycopy(capacities, 0, residuals, 0, residuals.length);
+    }
+
+    @Override
+    public void push(int arc, int amount) {
+        residuals[arc] -= amount;
+        residuals[reverses[arc]] += amount;
+    }
+
+    @Override
+    public int getNoOfNodes() {
+        return noOfNodes;
+    }
+
+    @Override
+    public int getNoOfArcs() {
+        return targets.length;
+    }
+
+    @Override
+    public int firstArc(int node) {
+        return offsets[node];
+    }
+
+    @Override
+    public int forwardEnd(int node) {
+        return forwardEnds[node];
+    }
+
+    @Override
+    public int endArc(int node) {
+        return offsets[node + 1];
+    }
+
+    @Override
+    public int target(int arc) {
+        return targets[arc];
+    }
+
+    @Override
+    public int reverse(int arc) {
+        return reverses[arc];
+    }
+
+    @Override
+    public int capacity(int arc) {
+        return capacities[arc];
+    }
+
+    @Override
+    public int residual(int arc) {
+        return residuals[arc];
+    }
+
+    @Override
+    protected void setResidual(int arc, int residual) {
+        residuals[arc] = residual;
+    }
+
+    @Override
+    protected void setArcCapacity(int arc, int capacity) {
+        capacities[arc] = capacity;
+    }
+
+}
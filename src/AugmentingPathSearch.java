@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+/**
+ * This AugmentingPathSearch class is the Breadth First Search kernel used to find
+ * augmenting paths. It does not allocate any memory once it is created:
+ * - The queue is a primitive int ring buffer instead of a queue of boxed Integers.
+ * - A node is visited when its stamp equals the stamp of the current search, so the
+ *   visited marks are reset by incrementing the stamp instead of clearing an array.
+ * - The search stops as soon as the target node is labelled.
+ *
+ * Only the arcs with at least a given residual capacity (the threshold) are used, so
+ * the same kernel serves plain augmenting paths (threshold 1) and capacity scaling.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class AugmentingPathSearch {
+    private int[] queue; // Ring buffer of nodes to explore
+    private int mask; // Size of the ring buffer minus one (the size is a power of two)
+    private int[] visitedStamp; // Stamp of the last search that visited each node
+    private int stamp; // Stamp of the current search
+    private int[] parentArc; // Arc used to reach each node in the current search
+
+    /**
+     * This is the constructor of AugmentingPathSearch class.
+     *
+     * @param noOfNodes The number of nodes of the graphs to search.
+     */
+    public AugmentingPathSearch(int noOfNodes) {
+        ensureCapacity(noOfNodes);
+    }
+
+    /**
+     * Grows the arrays of the search if a graph has more nodes than the search was
+     * created for.
+     *
+     * @param noOfNodes The number of nodes of the graph to search.
+     */
+    private void ensureCapacity(int noOfNodes) {
+        if (visitedStamp != null && visitedStamp.length >= noOfNodes) {
+            return;
+        }
+        // Each node enters the queue at most once per search, so a buffer as large as
+        // the number of nodes (rounded up to a power of two) never overflows
+        int size = Integer.highestOneBit(Math.max(1, noOfNodes - 1)) << 1;
+        queue = new int[size];
+        mask = size - 1;
+        visitedStamp = new int[noOfNodes];
+        parentArc = new int[noOfNodes];
+        stamp = 0;
+    }
+
+    /**
+     * Searches whether there exists a path from one node to another using only arcs
+     * with a residual capacity of at least the threshold. The arcs of the path found
+     * can be followed backwards from the target with parentArc().
+     *
+     * @param graph     The residual graph to search.
+     * @param from      The node the search starts from.
+     * @param to        The node the search looks for.
+     * @param threshold The smallest residual capacity of an arc that can be used.
+     * @return boolean Returns true if a path exists.
+     */
+    public boolean search(ResidualGraph graph, int from, int to, int threshold) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        ensureCapacity(graph.getNoOfNodes());
+        // Start a new search, all the nodes become not visited
+        if (++stamp == 0) {
+            Arrays.fill(visitedStamp, 0);
+            stamp = 1;
+        }
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++ & mask] = from;
+        visitedStamp[from] = stamp;
+        parentArc[from] = -1; // The start node has no parent
+        long arcsScanned = 0;
+
+        while (head != tail) {
+            int u = queue[head++ & mask];
+            int first = graph.firstArc(u);
+            for (int arc = first; arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (visitedStamp[v] != stamp && graph.residual(arc) >= threshold) {
+                    parentArc[v] = arc;
+                    // Stop as soon as the target has been labelled
+                    if (v == to) {
+                        if (SolverMetrics.ENABLED) {
+                            record(startTime, head, arcsScanned + arc - first + 1);
+                        }
+                        return true;
+                    }
+                    visitedStamp[v] = stamp;
+                    queue[tail++ & mask] = v;
+                }
+            }
+            arcsScanned += graph.endArc(u) - first;
+        }
+        if (SolverMetrics.ENABLED) {
+            record(startTime, head, arcsScanned);
+        }
+        return false;
+    }
+
+    /**
+     * Adds the work of a search to the solver metrics.
+     *
+     * @param startTime   The time the search started in nanoseconds.
+     * @param dequeued    The number of nodes taken from the queue.
+     * @param arcsScanned The number of arcs looked at.
+     */
+    private static void record(long startTime, int dequeued, long arcsScanned) {
+        SolverMetrics.add(SolverMetrics.Counter.SEARCHES, 1);
+        SolverMetrics.add(SolverMetrics.Counter.NODES_DEQUEUED, dequeued);
+        SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, arcsScanned);
+        SolverMetrics.addTime(SolverMetrics.Phase.SEARCH, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Sends flow along the path found by the last search. The amount sent is the
+     * smallest residual capacity on the path, but never more than the given limit.
+     *
+     * @param graph The residual graph that was searched.
+     * @param from  The node the search started from.
+     * @param to    The node the search found.
+     * @param limit The largest amount of flow to send.
+     * @return int Returns the amount of flow sent.
+     */
+    public int augmentPath(ResidualGraph graph, int from, int to, int limit) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        // Find the bottleneck by looping backward through the path
+        int pathFlow = limit;
+        for (int v = to; v != from; v = graph.target(graph.reverse(parentArc[v]))) {
+            pathFlow = Math.min(pathFlow, graph.residual(parentArc[v]));
+        }
+        // Update the residual capacities of the arcs & reverse arcs along the path
+        for (int v = to; v != from; v = graph.target(graph.reverse(parentArc[v]))) {
+            graph.push(parentArc[v], pathFlow);
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.add(SolverMetrics.Counter.AUGMENTING_PATHS, 1);
+            SolverMetrics.addBottleneck(pathFlow);
+            SolverMetrics.addTime(SolverMetrics.Phase.AUGMENT, System.nanoTime() - startTime);
+        }
+        return pathFlow;
+    }
+
+    /**
+     * @param node A node reached by the last search.
+     * @return int Returns the arc used to reach the node (-1 for the start node).
+     */
+    public int parentArc(int node) {
+        return parentArc[node];
+    }
+
+}
@@ -0,0 +1,466 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This BatchRunner class solves a whole directory of graph files without any prompts.
+ * Each file passes through a pipeline of stages: it is loaded, solved and verified,
+ * each stage on its own pool of threads with its own queue of waiting files, and the
+ * calling thread writes the finished results to a single output file. A file waiting
+ * on the disk therefore never holds up a solver thread, and the stages of different
+ * files overlap. Only a bounded number of files is in the pipeline at once, which
+ * keeps the memory used flat however many files there are.
+ *
+ * Each solve and verify thread keeps its own solver or FlowVerifier, so their scratch
+ * arrays are reused from one file to the next. The graphs are reduced and, as in the
+ * Menu, reordered if the system property maxflow.reorder names an order. A file that
+ * cannot be loaded or solved, whatever the error, is reported in the output and does
+ * not stop the batch.
+ *
+ * The output has one record per file, in the order the files were finished: JSON lines,
+ * or CSV if the name of the output file ends with ".csv". A record holds the size of
+ * the graph, the maximum flow, the time of each stage in microseconds, the result of the
+ * verification and the edges of the minimum cut (in the numbering of the file).
+ *
+ * Usage: java BatchRunner [directory or manifest] [output] [algorithm] [noOfThreads]
+ *
+ * A manifest is a text file naming one graph file per line, relative to the manifest.
+ * The algorithms are numbered as in the Menu, and by default each graph gets the
+ * algorithm AdaptiveSolver chooses for it.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class BatchRunner {
+    private static final String CSV_HEADER = "file,nodes,edges,flow,valid,parse_us," +
+            "solve_us,verify_us,cut_capacity,cut,error";
+
+    private final int algorithm; // The algorithm used to find the maximum flows (as in Menu)
+    private final int noOfThreads; // The number of threads of each stage
+    // The solver of each solve thread and the verifier of each verify thread
+    private final ThreadLocal<MaxFlowSolver> solvers;
+    private final ThreadLocal<FlowVerifier> verifiers;
+    // The parallel solvers created by the solve threads, closed at the end of each run
+    private final Queue<ParallelPushRelabelSolver> parallelSolvers =
+            new ConcurrentLinkedQueue<>();
+
+    /**
+     * This Result class holds what is written to the output for one file.
+     */
+    private static class Result {
+        private final Path file; // The graph file
+        private FlowProblem problem; // The loaded graph, until it has been verified
+        private int noOfNodes; // The number of nodes of the graph
+        private int noOfEdges; // The number of edges of the graph
+        private int maximumFlow; // The maximum possible flow from the source to the sink
+        private String violation; // The violation found by the verifier, or null
+        private long parseTime; // The time taken to load the file in microseconds
+        private long solveTime; // The time taken to find the maximum flow in microseconds
+        private long verifyTime; // The time taken to verify the flow in microseconds
+        private long cutCapacity; // The capacity of the minimum cut
+        private final List<int[]> cut = new ArrayList<>(); // The edges of the minimum cut
+        private String error; // The reason the file could not be solved, or null
+
+        Result(Path file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * This is the constructor of BatchRunner class.
+     *
+     * @param algorithm   The algorithm used to find the maximum flows, numbered as in Menu.
+     * @param noOfThreads The number of threads of each stage.
+     */
+    public BatchRunner(int algorithm, int noOfThreads) {
+        if (algorithm < 1 || algorithm > 7) {
+            throw new IllegalArgumentException("The algorithm must be between 1 and 7");
+        }
+        if (noOfThreads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.algorithm = algorithm;
+        this.noOfThreads = noOfThreads;
+        solvers = ThreadLocal.withInitial(this::createAlgorithm);
+        verifiers = ThreadLocal.withInitial(FlowVerifier::new);
+    }
+
+    /**
+     * Lists the graph files of a directory, or the files named in a manifest.
+     *
+     * @param input A directory of graph files or a manifest.
+     * @return List Returns the graph files in the order they are solved.
+     * @throws IOException If the directory or manifest cannot be read.
+     */
+    public static List<Path> listFiles(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            try (Stream<Path> files = Files.list(input)) {
+                return files.filter(Files::isRegularFile).sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+        Path directory = input.toAbsolutePath().getParent();
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(input)) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                files.add(directory.resolve(line));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * This Pipeline class passes the files of one run through the load, solve and
+     * verify stages and puts every file in the queue of finished files exactly once,
+     * whether its stages succeed or not.
+     */
+    private class Pipeline {
+        private final ExecutorService[] stages; // The threads of each stage, in order
+        private final BlockingQueue<Result> finished; // Files ready to be written
+
+        Pipeline(int capacity) {
+            String[] names = {"max-flow-load", "max-flow-solve", "max-flow-verify"};
+            stages = new ExecutorService[names.length];
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                stages[i] = Executors.newFixedThreadPool(noOfThreads, runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            finished = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Queues a stage of a file on the threads of that stage. A file whose stage
+         * fails skips the stages after it and goes straight to the finished files.
+         *
+         * @param stage  The index of the stage.
+         * @param result The record of the file.
+         */
+        void execute(int stage, Result result) {
+            try {
+                stages[stage].execute(() -> {
+                    try {
+                        runStage(stage, result);
+                    } catch (Throwable e) {
+                        finish(result, e);
+                        return;
+                    }
+                    if (stage + 1 < stages.length) {
+                        execute(stage + 1, result);
+                    } else {
+                        finish(result, null);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                finish(result, e);
+            }
+        }
+
+        /**
+         * Hands a file to the writer. The queue is never full, as every file in the
+         * pipeline holds a permit.
+         *
+         * @param result The record of the file.
+         * @param error  The reason the file could not be solved, or null.
+         */
+        private void finish(Result result, Throwable error) {
+            if (error != null) {
+                result.error = error.getMessage() == null ? error.toString() :
+                        error.getMessage();
+            }
+            result.problem = null;
+            finished.add(result);
+        }
+
+        /**
+         * Stops the threads of every stage.
+         */
+        void shutdown() {
+            for (ExecutorService stage : stages) {
+                stage.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Solves the given files and writes a record for each of them to the output.
+     *
+     * @param files  The graph files to solve.
+     * @param output The file the results are written to.
+     * @return int Returns the number of files that failed to load or whose flow did not
+     * verify.
+     * @throws IOException          If the output cannot be written.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public int run(List<Path> files, Path output) throws IOException, InterruptedException {
+        boolean csv = output.getFileName().toString().endsWith(".csv");
+        // Files being worked on or waiting to be written, at most a few per thread
+        int inFlight = 4 * noOfThreads;
+        Semaphore permits = new Semaphore(inFlight);
+        Pipeline pipeline = new Pipeline(inFlight);
+
+        int failures = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+            if (csv) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+            }
+            int submitted = 0;
+            int written = 0;
+            while (written < files.size()) {
+                // Fill the pipeline, then wait for the next finished file. Every file
+                // submitted is finished, so the wait always ends.
+                while (submitted < files.size() && permits.tryAcquire()) {
+                    pipeline.execute(0, new Result(files.get(submitted++)));
+                }
+                Result result = pipeline.finished.take();
+                if (result.error != null || result.violation != null) {
+                    failures++;
+                }
+                writeResult(writer, result, csv);
+                written++;
+                permits.release();
+            }
+        } finally {
+            pipeline.shutdown();
+            ParallelPushRelabelSolver solver;
+            while ((solver = parallelSolvers.poll()) != null) {
+                solver.close();
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Runs one stage of a file on the current thread.
+     *
+     * @param stage  The index of the stage: 0 to load, 1 to solve and 2 to verify.
+     * @param result The record of the file.
+     * @throws IOException If the file cannot be loaded.
+     */
+    private void runStage(int stage, Result result) throws IOException {
+        switch (stage) {
+            case 0:
+                load(result);
+                break;
+            case 1:
+                solve(result);
+                break;
+            default:
+                verify(result);
+        }
+    }
+
+    /**
+     * Loads a file.
+     *
+     * @param result The record of the file.
+     * @throws IOException If the file cannot be loaded.
+     */
+    private void load(Result result) throws IOException {
+        long startTime = System.nanoTime() / 1000;
+        result.problem = GraphLoader.load(result.file);
+        ResidualGraph graph = result.problem.graph;
+        result.noOfNodes = graph.getNoOfNodes();
+        result.noOfEdges = graph.getNoOfEdges();
+        result.parseTime = System.nanoTime() / 1000 - startTime;
+    }
+
+    /**
+     * Finds the maximum flow of a loaded file with the solver of the current thread.
+     *
+     * @param result The record of the file.
+     */
+    private void solve(Result result) {
+        long startTime = System.nanoTime() / 1000;
+        FlowProblem problem = result.problem;
+        ResidualGraph graph = problem.graph;
+        MaxFlowSolver algorithmSolver = algorithm == 1 ?
+                new MaximumFlowNetwork(graph.getNoOfNodes()) : solvers.get();
+        MaxFlowSolver solver = new ReducingSolver(
+                ReorderingSolver.fromProperty(algorithmSolver));
+        result.maximumFlow = SolverMetrics.solve(solver, graph, problem.source,
+                problem.sink);
+        result.solveTime = System.nanoTime() / 1000 - startTime;
+    }
+
+    /**
+     * Verifies the flow of a solved file and collects the edges of its minimum cut.
+     *
+     * @param result The record of the file.
+     */
+    private void verify(Result result) {
+        long startTime = System.nanoTime() / 1000;
+        FlowProblem problem = result.problem;
+        ResidualGraph graph = problem.graph;
+        FlowVerifier verifier = verifiers.get();
+        result.violation = verifier.verify(graph, problem.source, problem.sink,
+                result.maximumFlow);
+        if (result.violation == null) {
+            result.cutCapacity = verifier.getCutCapacity();
+            int offset = problem.nodeOffset;
+            for (int u = 0; u < graph.getNoOfNodes(); u++) {
+                if (!verifier.isOnSourceSide(u)) {
+                    continue;
+                }
+                for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                    int v = graph.target(arc);
+                    if (!verifier.isOnSourceSide(v) && graph.capacity(arc) > 0) {
+                        result.cut.add(new int[]{u + offset, v + offset});
+                    }
+                }
+            }
+        }
+        result.verifyTime = System.nanoTime() / 1000 - startTime;
+    }
+
+    /**
+     * Creates the solver of a solve thread. Edmonds-Karp is created for every file
+     * instead, since it is sized for one graph.
+     *
+     * @return MaxFlowSolver Returns the solver of the chosen algorithm.
+     */
+    private MaxFlowSolver createAlgorithm() {
+        switch (algorithm) {
+            case 2:
+                return new DinicSolver();
+            case 3:
+                return new PushRelabelSolver();
+            case 4:
+                ParallelPushRelabelSolver solver = new ParallelPushRelabelSolver();
+                parallelSolvers.add(solver);
+                return solver;
+            case 5:
+                return new CapacityScalingSolver();
+            case 6:
+                return new BoykovKolmogorovSolver();
+            case 7:
+                return new AdaptiveSolver();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Writes the record of one file as a JSON line or a CSV row.
+     *
+     * @param writer The output.
+     * @param result The record of the file.
+     * @param csv    True to write a CSV row, false to write a JSON line.
+     * @throws IOException If the output cannot be written.
+     */
+    private static void writeResult(BufferedWriter writer, Result result, boolean csv)
+            throws IOException {
+        StringBuilder cut = new StringBuilder(csv ? "" : "[");
+        for (int i = 0; i < result.cut.size(); i++) {
+            int[] edge = result.cut.get(i);
+            if (i > 0) {
+                cut.append(csv ? " " : ",");
+            }
+            cut.append(csv ? edge[0] + "-" + edge[1] : "[" + edge[0] + "," + edge[1] + "]");
+        }
+        if (!csv) {
+            cut.append(']');
+        }
+        String error = result.error != null ? result.error : result.violation;
+        boolean valid = result.error == null && result.violation == null;
+
+        if (csv) {
+            writer.write(csvField(result.file.toString()) + "," + result.noOfNodes + "," +
+                    result.noOfEdges + "," + result.maximumFlow + "," + valid + "," +
+                    result.parseTime + "," + result.solveTime + "," + result.verifyTime +
+                    "," + result.cutCapacity + "," + cut + "," +
+                    (error == null ? "" : csvField(error)));
+        } else {
+            writer.write("{\"file\":" + jsonString(result.file.toString()) +
+                    ",\"nodes\":" + result.noOfNodes + ",\"edges\":" + result.noOfEdges +
+                    ",\"flow\":" + result.maximumFlow + ",\"valid\":" + valid +
+                    ",\"parse_us\":" + result.parseTime + ",\"solve_us\":" +
+                    result.solveTime + ",\"verify_us\":" + result.verifyTime +
+                    ",\"cut_capacity\":" + result.cutCapacity + ",\"cut\":" + cut +
+                    ",\"error\":" + (error == null ? "null" : jsonString(error)) + "}");
+        }
+        writer.newLine();
+    }
+
+    /**
+     * @param text The text to write.
+     * @return String Returns the text as a JSON string.
+     */
+    private static String jsonString(String text) {
+        StringBuilder json = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * @param text The text to write.
+     * @return String Returns the text as a CSV field, quoted if needed.
+     */
+    private static String csvField(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * This is the main method of the batch runner.
+     *
+     * @param args The directory or manifest of the graph files, the output file, the
+     *             number of the algorithm and the number of threads of each stage (the last two
+     *             optional).
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java BatchRunner [directory or manifest] [output] " +
+                    "[algorithm] [noOfThreads]");
+            System.exit(2);
+        }
+        try {
+            int algorithm = args.length > 2 ? Integer.parseInt(args[2]) : 7;
+            int noOfThreads = args.length > 3 ? Integer.parseInt(args[3]) :
+                    Runtime.getRuntime().availableProcessors();
+            BatchRunner runner = new BatchRunner(algorithm, noOfThreads);
+
+            long startTime = System.nanoTime() / 1000;
+            List<Path> files = listFiles(Paths.get(args[0]));
+            int failures = runner.run(files, Paths.get(args[1]));
+            System.out.println("Solved " + files.size() + " graphs (" + failures +
+                    " failed) in " + ((System.nanoTime() / 1000) - startTime) / 1000 +
+                    " milliseconds");
+            System.exit(failures == 0 ? 0 : 1);
+        } catch (IOException | IllegalArgumentException | InterruptedException e) {
+            System.err.println("Error : " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+}
@@ -0,0 +1,343 @@
+/**
+ * This BoykovKolmogorovSolver class implements the algorithm of Boykov and Kolmogorov
+ * to find the maximum possible flow of a given graph. It is much faster than the other
+ * solvers on image-style grids (see GridGraph), where most nodes are joined to both the
+ * source and the sink and the augmenting paths are short.
+ *
+ * Two search trees are grown, one from the source along arcs with capacity left and
+ * one into the sink. When they touch, flow is sent along the path through both trees.
+ * Instead of searching again from scratch, the trees are kept: the nodes cut off by
+ * saturated arcs (the orphans) look for a new parent in their own tree, and only the
+ * ones that find none are freed. Each node remembers its distance to the root and the
+ * augmentation in which that distance was last checked, so an orphan can tell quickly
+ * whether a new parent is still connected to the root.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class BoykovKolmogorovSolver implements MaxFlowSolver {
+    // The trees a node can belong to
+    private static final byte FREE = 0;
+    private static final byte SOURCE_TREE = 1;
+    private static final byte SINK_TREE = 2;
+    // Parent arcs that are not arcs
+    private static final int ORPHAN = -1; // The node has lost its parent
+    private static final int ROOT = -2; // The node is the source or the sink
+
+    private byte[] tree; // The tree of each node
+    private int[] parentArc; // The arc from each node to its parent
+    private int[] time; // The augmentation in which the distance was last checked
+    private int[] distance; // The number of arcs from each node to its root
+    private int[] active; // Ring buffer of the active nodes, whose tree can still grow
+    private boolean[] isActive; // True if the node is in the active ring buffer
+    private int[] orphans; // Queue of the orphans of the current augmentation
+    private int mask; // Size of the active ring buffer minus one
+    private int head; // The first active node in the ring buffer
+    private int tail; // The position after the last active node
+    private int scanArc; // The arc to resume the scan of the first active node from (-1 if none)
+    private int clock; // The number of augmentations so far
+
+    /**
+     * Runs the algorithm and calculates the maximum possible flow of the
+     * given graph from source to the sink.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int noOfNodes = graph.getNoOfNodes();
+        if (tree == null || tree.length < noOfNodes) {
+            // The node being scanned may be activated again, so a node can be in the ring
+            // buffer twice
+            int size = Integer.highestOneBit(noOfNodes) << 1;
+            tree = new byte[noOfNodes];
+            parentArc = new int[noOfNodes];
+            time = new int[noOfNodes];
+            distance = new int[noOfNodes];
+            active = new int[size];
+            isActive = new boolean[noOfNodes];
+            orphans = new int[noOfNodes];
+            mask = size - 1;
+        }
+        graph.reset();
+        for (int u = 0; u < noOfNodes; u++) {
+            tree[u] = FREE;
+            isActive[u] = false;
+            time[u] = 0;
+        }
+        head = 0;
+        tail = 0;
+        scanArc = -1;
+        clock = 0;
+        tree[source] = SOURCE_TREE;
+        tree[sink] = SINK_TREE;
+        parentArc[source] = ROOT;
+        parentArc[sink] = ROOT;
+        distance[source] = 0;
+        distance[sink] = 0;
+        activate(source);
+        activate(sink);
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.INIT, System.nanoTime() - startTime);
+        }
+
+        int maximumFlow = 0; // Initialize the maximum possible flow to zero
+        int bridge;
+        while ((bridge = grow(graph)) >= 0) {
+            clock++;
+            maximumFlow += augment(graph, bridge, source, sink);
+        }
+        return maximumFlow;
+    }
+
+    /**
+     * Grows the trees from the active nodes until they touch. The scan of a node stops
+     * where the trees touch and resumes there after the augmentation, so nodes with many
+     * arcs, like the source and the sink, are not scanned again from the start every time.
+     *
+     * @param graph The residual graph.
+     * @return int Returns the arc from the source tree to the sink tree where the trees
+     * touch, or -1 if neither tree can grow any more.
+     */
+    private int grow(ResidualGraph graph) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int dequeued = 0; // The number of scans finished, for the metrics
+        long arcsScanned = 0; // The number of arcs looked at, for the metrics
+        while (head != tail) {
+            int u = active[head & mask];
+            if (scanArc < 0) {
+                // Starting the scan: if u is activated again during the scan, it is
+                // added to the end of the ring buffer and scanned again from the start
+                isActive[u] = false;
+                scanArc = graph.firstArc(u);
+            }
+            if (tree[u] != FREE) {
+                boolean fromSource = tree[u] == SOURCE_TREE;
+                for (int arc = scanArc; arc < graph.endArc(u); arc++) {
+                    // The source tree grows along arcs leaving u, the sink tree along
+                    // arcs entering u
+                    int treeArc = fromSource ? arc : graph.reverse(arc);
+                    if (graph.residual(treeArc) <= 0) {
+                        continue;
+                    }
+                    int v = graph.target(arc);
+                    if (tree[v] == FREE) {
+                        tree[v] = tree[u];
+                        parentArc[v] = graph.reverse(arc);
+                        time[v] = time[u];
+                        distance[v] = distance[u] + 1;
+                        activate(v);
+                    } else if (tree[v] != tree[u]) {
+                        if (SolverMetrics.ENABLED) {
+                            recordGrowth(startTime, dequeued,
+                                    arcsScanned + arc - scanArc + 1);
+                        }
+                        scanArc = arc; // The arc may have capacity left afterwards
+                        return treeArc;
+                    } else if (time[v] <= time[u] && distance[v] > distance[u] &&
+                            parentArc[v] >= 0) {
+                        // Hang v from u, which is closer to the root
+                        parentArc[v] = graph.reverse(arc);
+                        time[v] = time[u];
+                        distance[v] = distance[u] + 1;
+                    }
+                }
+                if (SolverMetrics.ENABLED) {
+                    arcsScanned += graph.endArc(u) - scanArc;
+                }
+            }
+            scanArc = -1;
+            head++;
+            dequeued++;
+        }
+        if (SolverMetrics.ENABLED) {
+            recordGrowth(startTime, dequeued, arcsScanned);
+        }
+        return -1;
+    }
+
+    /**
+     * Adds the work of a growth of the trees to the solver metrics.
+     *
+     * @param startTime   The time the growth started in nanoseconds.
+     * @param dequeued    The number of active nodes whose scan was finished.
+     * @param arcsScanned The number of arcs looked at.
+     */
+    private static void recordGrowth(long startTime, int dequeued, long arcsScanned) {
+        SolverMetrics.add(SolverMetrics.Counter.SEARCHES, 1);
+        SolverMetrics.add(SolverMetrics.Counter.NODES_DEQUEUED, dequeued);
+        SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, arcsScanned);
+        SolverMetrics.addTime(SolverMetrics.Phase.SEARCH, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Sends the bottleneck along the path through both trees, then lets the orphans
+     * find new parents.
+     *
+     * @param graph  The residual graph.
+     * @param bridge The arc joining the two trees.
+     * @param source The source node of the given graph.
+     * @param sink   The sink node of the given graph.
+     * @return int Returns the amount of flow sent.
+     */
+    private int augment(ResidualGraph graph, int bridge, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int first = graph.target(graph.reverse(bridge)); // The end in the source tree
+        int last = graph.target(bridge); // The end in the sink tree
+
+        // Find the bottleneck on both halves of the path
+        int pathFlow = graph.residual(bridge);
+        for (int v = first; v != source; v = graph.target(parentArc[v])) {
+            pathFlow = Math.min(pathFlow, graph.residual(graph.reverse(parentArc[v])));
+        }
+        for (int v = last; v != sink; v = graph.target(parentArc[v])) {
+            pathFlow = Math.min(pathFlow, graph.residual(parentArc[v]));
+        }
+
+        // Send it, and cut off the nodes whose arc to the parent is saturated
+        int noOfOrphans = 0;
+        graph.push(bridge, pathFlow);
+        for (int v = first; v != source; ) {
+            int arc = graph.reverse(parentArc[v]); // The arc from the parent
+            int parent = graph.target(parentArc[v]);
+            graph.push(arc, pathFlow);
+            if (graph.residual(arc) == 0) {
+                parentArc[v] = ORPHAN;
+                orphans[noOfOrphans++] = v;
+            }
+            v = parent;
+        }
+        for (int v = last; v != sink; ) {
+            int arc = parentArc[v]; // The arc to the parent
+            int parent = graph.target(arc);
+            graph.push(arc, pathFlow);
+            if (graph.residual(arc) == 0) {
+                parentArc[v] = ORPHAN;
+                orphans[noOfOrphans++] = v;
+            }
+            v = parent;
+        }
+
+        // Adopt the orphans, which may make their children orphans as well
+        for (int i = 0; i < noOfOrphans; i++) {
+            noOfOrphans = adopt(graph, orphans[i], noOfOrphans);
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.add(SolverMetrics.Counter.AUGMENTING_PATHS, 1);
+            SolverMetrics.addBottleneck(pathFlow);
+            SolverMetrics.addTime(SolverMetrics.Phase.AUGMENT, System.nanoTime() - startTime);
+        }
+        return pathFlow;
+    }
+
+    /**
+     * Finds a new parent for an orphan among its neighbours in the same tree that are
+     * still connected to the root, choosing the one closest to the root. An orphan
+     * without such a neighbour is freed, and its children become orphans.
+     *
+     * @param graph       The residual graph.
+     * @param orphan      The orphan.
+     * @param noOfOrphans The number of orphans queued so far.
+     * @return int Returns the number of orphans queued after this one was adopted.
+     */
+    private int adopt(ResidualGraph graph, int orphan, int noOfOrphans) {
+        boolean inSourceTree = tree[orphan] == SOURCE_TREE;
+        int bestArc = ORPHAN;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int arc = graph.firstArc(orphan); arc < graph.endArc(orphan); arc++) {
+            int v = graph.target(arc);
+            // The parent must be able to send flow to the orphan in the source tree,
+            // and to take flow from it in the sink tree
+            int treeArc = inSourceTree ? graph.reverse(arc) : arc;
+            if (tree[v] != tree[orphan] || graph.residual(treeArc) <= 0) {
+                continue;
+            }
+            int rootDistance = distanceToRoot(graph, v);
+            if (rootDistance < bestDistance) {
+                bestArc = arc;
+                bestDistance = rootDistance;
+            }
+        }
+        if (bestArc != ORPHAN) {
+            parentArc[orphan] = bestArc;
+            time[orphan] = clock;
+            distance[orphan] = bestDistance + 1;
+            return noOfOrphans;
+        }
+
+        // No parent left: free the orphan
+        for (int arc = graph.firstArc(orphan); arc < graph.endArc(orphan); arc++) {
+            int v = graph.target(arc);
+            if (tree[v] != tree[orphan]) {
+                continue;
+            }
+            int treeArc = inSourceTree ? graph.reverse(arc) : arc;
+            // v can grow its tree into the freed node. The source and the sink are left
+            // out: their arcs to the freed node are saturated for good, as flow is never
+            // sent back into the source or out of the sink
+            if (graph.residual(treeArc) > 0 && parentArc[v] != ROOT) {
+                activate(v);
+            }
+            if (parentArc[v] == graph.reverse(arc)) {
+                parentArc[v] = ORPHAN;
+                orphans[noOfOrphans++] = v;
+            }
+        }
+        tree[orphan] = FREE;
+        return noOfOrphans;
+    }
+
+    /**
+     * Follows the parents of a node up to its root and marks the distances found on
+     * the way as checked in this augmentation.
+     *
+     * @param graph The residual graph.
+     * @param node  The node whose distance is requested.
+     * @return int Returns the number of arcs from the node to its root, or
+     * Integer.MAX_VALUE if an orphan is met on the way.
+     */
+    private int distanceToRoot(ResidualGraph graph, int node) {
+        int steps = 0;
+        int v = node;
+        while (time[v] != clock) {
+            int arc = parentArc[v];
+            if (arc == ORPHAN) {
+                return Integer.MAX_VALUE;
+            }
+            if (arc == ROOT) {
+                time[v] = clock;
+                distance[v] = 0;
+                break;
+            }
+            v = graph.target(arc);
+            steps++;
+        }
+        int rootDistance = steps + distance[v];
+
+        // Remember the distances on the path for the next orphans
+        int d = rootDistance;
+        for (v = node; time[v] != clock; v = graph.target(parentArc[v])) {
+            time[v] = clock;
+            distance[v] = d--;
+        }
+        return rootDistance;
+    }
+
+    /**
+     * Adds a node to the end of the active ring buffer, unless it is already in it.
+     *
+     * @param node The node to activate.
+     */
+    private void activate(int node) {
+        if (!isActive[node]) {
+            isActive[node] = true;
+            active[tail++ & mask] = node;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+import java.nio.IntBuffer;
+
+/**
+ * This BufferResidualGraph class keeps the CSR arrays of a residual graph in int
+ * buffers, which can be views of a memory-mapped file or of memory outside the heap.
+ * The solvers read the buffers in place, so nothing is copied onto the heap.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class BufferResidualGraph extends ResidualGraph {
+    private final int noOfNodes; // The number of nodes of the graph
+    private final IntBuffer offsets; // Arcs of node u are stored from offsets[u] to offsets[u + 1]
+    private final IntBuffer forwardEnds; // Forward arcs of node u end before forwardEnds[u]
+    private final IntBuffer targets; // The node each arc points to
+    private final IntBuffer reverses; // The paired arc pointing in the opposite direction
+    private final IntBuffer capacities; // Capacity of each arc (0 for the reverse arcs)
+    private final IntBuffer residuals; // Remaining capacity of each arc
+
+    /**
+     * This is the constructor of BufferResidualGraph class. The buffers are used as they
+     * are and must already hold a valid CSR graph.
+     *
+     * @param noOfNodes   The number of nodes of the graph.
+     * @param offsets     The first arc of each node, followed by the number of arcs.
+     * @param forwardEnds The arc following the last forward arc of each node.
+     * @param targets     The node each arc points to.
+     * @param reverses    The paired arc of each arc.
+     * @param capacities  The capacity of each arc.
+     * @param residuals   The remaining capacity of each arc.
+     */
+    public BufferResidualGraph(int noOfNodes, IntBuffer offsets, IntBuffer forwardEnds,
+                               IntBuffer targets, IntBuffer reverses, IntBuffer capacities,
+                               IntBuffer residuals) {
+        this.noOfNodes = noOfNodes;
+        this.offsets = offsets;
+        this.forwardEnds = forwardEnds;
+        this.targets = targets;
+        this.reverses = reverses;
+        this.capacities = capacities;
+        this.residuals = residuals;
+    }
+
+    @Override
+    public void reset() {
+        // Bulk copy, which is a plain memory copy when both buffers use the same order
+        IntBuffer from = capacities.duplicate();
+        IntBuffer to = residuals.duplicate();
+        from.clear();
+        to.clear();
+        to.put(from);
+    }
+
+    @Override
+    public void push(int arc, int amount) {
+        int reverse = reverses.get(arc);
+        residuals.put(arc, residuals.get(arc) - amount);
+        residuals.put(reverse, residuals.get(reverse) + amount);
+    }
+
+    @Override
+    public int getNoOfNodes() {
+        return noOfNodes;
+    }
+
+    @Override
+    public int getNoOfArcs() {
+        return targets.limit();
+    }
+
+    @Override
+    public int firstArc(int node) {
+        return offsets.get(node);
+    }
+
+    @Override
+    public int forwardEnd(int node) {
+        return forwardEnds.get(node);
+    }
+
+    @Override
+    public int endArc(int node) {
+        return offsets.get(node + 1);
+    }
+
+    @Override
+    public int target(int arc) {
+        return targets.get(arc);
+    }
+
+    @Override
+    public int reverse(int arc) {
+        return reverses.get(arc);
+    }
+
+    @Override
+    public int capacity(int arc) {
+        return capacities.get(arc);
+    }
+
+    @Override
+    public int residual(int arc) {
+        return residuals.get(arc);
+    }
+
+    @Override
+    protected void setResidual(int arc, int residual) {
+        residuals.put(arc, residual);
+    }
+
+    @Override
+    protected void setArcCapacity(int arc, int capacity) {
+        capacities.put(arc, capacity);
+    }
+
+}
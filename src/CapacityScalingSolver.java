@@ -0,0 +1,53 @@
+/**
+ * This CapacityScalingSolver class implements Ford Fulkerson with capacity scaling to
+ * find the maximum possible flow of a given graph. Augmenting paths are only searched
+ * among the arcs with at least delta residual capacity, and delta is halved once no
+ * such path is left. Large paths are therefore found first, and the number of
+ * augmentations is O(E log U) instead of growing with the value of the flow, where U
+ * is the largest capacity.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class CapacityScalingSolver implements MaxFlowSolver {
+    private AugmentingPathSearch search; // Finds the augmenting paths
+
+    /**
+     * Runs the algorithm and calculates the maximum possible flow of the
+     * given graph from source to the sink.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        if (search == null) {
+            search = new AugmentingPathSearch(graph.getNoOfNodes());
+        }
+        graph.reset();
+
+        // Start with the largest power of two not above the largest capacity
+        int largestCapacity = 0;
+        for (int arc = 0; arc < graph.getNoOfArcs(); arc++) {
+            largestCapacity = Math.max(largestCapacity, graph.capacity(arc));
+        }
+        int delta = Integer.highestOneBit(largestCapacity);
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.INIT, System.nanoTime() - startTime);
+        }
+
+        int maximumFlow = 0; // Initialize the maximum possible flow to zero
+        // Halve delta each phase until the paths of every capacity have been used
+        for (; delta > 0; delta >>= 1) {
+            while (search.search(graph, source, sink, delta)) {
+                maximumFlow += search.augmentPath(graph, source, sink, Integer.MAX_VALUE);
+            }
+        }
+        return maximumFlow;
+    }
+
+}
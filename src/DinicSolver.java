@@ -0,0 +1,188 @@
+/**
+ * This DinicSolver class implements Dinic's algorithm to find the maximum possible
+ * flow of a given graph. Each phase builds a level graph with a single Breadth First
+ * Search and then sends a blocking flow through it, so far fewer searches are needed
+ * than with one Breadth First Search per augmenting path.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class DinicSolver implements MaxFlowSolver {
+    private int[] level; // Distance of each node from the source in the level graph
+    private int[] currentArc; // Next arc to try from each node (current-arc pointer)
+    private int[] queue; // Queue of nodes to explore while building the level graph
+    private int[] path; // Arcs of the path from the source explored by the DFS
+
+    /**
+     * Runs the algorithm and calculates the maximum possible flow of the
+     * given graph from source to the sink.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int noOfNodes = graph.getNoOfNodes();
+        if (level == null || level.length < noOfNodes) {
+            level = new int[noOfNodes];
+            currentArc = new int[noOfNodes];
+            queue = new int[noOfNodes];
+            path = new int[noOfNodes];
+        }
+        graph.reset();
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.INIT, System.nanoTime() - startTime);
+        }
+
+        int maximumFlow = 0; // Initialize the maximum possible flow to zero
+        // Send a blocking flow while the sink can be reached in the level graph
+        while (buildLevelGraph(graph, source, sink)) {
+            for (int u = 0; u < noOfNodes; u++) {
+                currentArc[u] = graph.firstArc(u);
+            }
+            maximumFlow += blockingFlow(graph, source, sink);
+        }
+        return maximumFlow;
+    }
+
+    /**
+     * Labels every node with its distance from the source using only the arcs that
+     * still have capacity left. The search stops once the sink has been labelled.
+     *
+     * @param graph  The residual graph to search.
+     * @param source The source node of the given graph.
+     * @param sink   The sink node of the given graph.
+     * @return boolean Returns true if the sink can be reached from the source.
+     */
+    private boolean buildLevelGraph(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int noOfNodes = graph.getNoOfNodes();
+        for (int u = 0; u < noOfNodes; u++) {
+            level[u] = -1;
+        }
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        level[source] = 0;
+        long arcsScanned = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            int first = graph.firstArc(u);
+            for (int arc = first; arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (level[v] < 0 && graph.residual(arc) > 0) {
+                    level[v] = level[u] + 1;
+                    if (v == sink) {
+                        if (SolverMetrics.ENABLED) {
+                            recordSearch(startTime, head, arcsScanned + arc - first + 1);
+                        }
+                        return true;
+                    }
+                    queue[tail++] = v;
+                }
+            }
+            arcsScanned += graph.endArc(u) - first;
+        }
+        if (SolverMetrics.ENABLED) {
+            recordSearch(startTime, head, arcsScanned);
+        }
+        return false;
+    }
+
+    /**
+     * Adds the work of a level graph search to the solver metrics.
+     *
+     * @param startTime   The time the search started in nanoseconds.
+     * @param dequeued    The number of nodes taken from the queue.
+     * @param arcsScanned The number of arcs looked at.
+     */
+    private static void recordSearch(long startTime, int dequeued, long arcsScanned) {
+        SolverMetrics.add(SolverMetrics.Counter.SEARCHES, 1);
+        SolverMetrics.add(SolverMetrics.Counter.NODES_DEQUEUED, dequeued);
+        SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, arcsScanned);
+        SolverMetrics.addTime(SolverMetrics.Phase.SEARCH, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Sends flow along paths of the level graph until every path from the source to
+     * the sink has a saturated arc. The current-arc pointers make sure that no arc is
+     * tried again once it has been found to lead nowhere.
+     *
+     * @param graph  The residual graph holding the level graph.
+     * @param source The source node of the given graph.
+     * @param sink   The sink node of the given graph.
+     * @return int Returns the flow sent in this phase.
+     */
+    private int blockingFlow(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        long paths = 0; // The number of paths found, for the metrics
+        long arcsScanned = 0; // The number of arcs tried, for the metrics
+        int flow = 0;
+        int depth = 0; // Number of arcs on the path explored so far
+        int u = source;
+
+        while (true) {
+            if (u == sink) {
+                // Find the bottleneck of the path found
+                int pathFlow = Integer.MAX_VALUE;
+                for (int i = 0; i < depth; i++) {
+                    pathFlow = Math.min(pathFlow, graph.residual(path[i]));
+                }
+                // Update the residual capacities along the path and retreat to the
+                // start of the first arc that became saturated
+                int saturated = -1;
+                for (int i = 0; i < depth; i++) {
+                    graph.push(path[i], pathFlow);
+                    if (saturated < 0 && graph.residual(path[i]) == 0) {
+                        saturated = i;
+                    }
+                }
+                flow += pathFlow;
+                if (SolverMetrics.ENABLED) {
+                    paths++;
+                    SolverMetrics.addBottleneck(pathFlow);
+                }
+                depth = saturated;
+                u = depth == 0 ? source : graph.target(path[depth - 1]);
+                continue;
+            }
+
+            // Advance along the next arc that goes one level deeper
+            int end = graph.endArc(u);
+            int arc = currentArc[u];
+            while (arc < end && (graph.residual(arc) == 0 ||
+                    level[graph.target(arc)] != level[u] + 1)) {
+                arc++;
+            }
+            if (SolverMetrics.ENABLED) {
+                arcsScanned += (arc < end ? arc + 1 : end) - currentArc[u];
+            }
+            currentArc[u] = arc;
+
+            if (arc < end) {
+                path[depth++] = arc;
+                u = graph.target(arc);
+            } else {
+                // The node is a dead end, remove it from the level graph and retreat
+                if (u == source) {
+                    if (SolverMetrics.ENABLED) {
+                        SolverMetrics.add(SolverMetrics.Counter.AUGMENTING_PATHS, paths);
+                        SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, arcsScanned);
+                        SolverMetrics.addTime(SolverMetrics.Phase.AUGMENT,
+                                System.nanoTime() - startTime);
+                    }
+                    return flow;
+                }
+                level[u] = -1;
+                u = graph.target(graph.reverse(path[--depth]));
+                currentArc[u]++;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+/**
+ * This FlowProblem class holds a flow network loaded from a file together with its
+ * source and sink nodes.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class FlowProblem {
+    public final ResidualGraph graph; // The flow network in CSR form
+    public final int source; // The source node of the network
+    public final int sink; // The sink node of the network
+    // Number added to the node ids when they are shown (1 for DIMACS files, whose
+    // nodes are numbered from 1)
+    public final int nodeOffset;
+
+    /**
+     * This is the constructor of FlowProblem class.
+     *
+     * @param graph      The flow network in CSR form.
+     * @param source     The source node of the network.
+     * @param sink       The sink node of the network.
+     * @param nodeOffset The number added to the node ids when they are shown.
+     */
+    public FlowProblem(ResidualGraph graph, int source, int sink, int nodeOffset) {
+        this.graph = graph;
+        this.source = source;
+        this.sink = sink;
+        this.nodeOffset = nodeOffset;
+    }
+
+}
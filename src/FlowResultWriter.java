@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This FlowResultWriter class writes the result of a solve straight from the residual
+ * graph: the maximum flow, every edge that carries flow and the edges of the minimum
+ * cut. The edges without flow are skipped and nothing as large as V x V is created, so
+ * the time taken grows with the number of edges. The bytes are collected in a buffer
+ * and written to the channel a block at a time.
+ *
+ * Three formats are written:
+ *
+ * Edge list (nodes numbered as in the graph file, lines starting with # are comments):
+ *   # maximum flow [value]
+ *   [from] [to] [flow]
+ *   # cut [from] [to]
+ *
+ * DIMACS flow (nodes numbered from 1):
+ *   s [value]
+ *   f [from] [to] [flow]
+ *   c cut [from] [to]
+ *
+ * Binary (little-endian ints, nodes numbered from 0):
+ *   header : magic, version, nodes, source, sink, node offset, maximum flow
+ *   flows  : number of edges with flow, then from, to, flow of each edge
+ *   cut    : number of cut edges, then from, to of each edge
+ *
+ * The cut is made of the edges leaving the nodes still reachable from the source, so it
+ * is a minimum cut when the graph holds a maximum flow.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class FlowResultWriter {
+    private static final int MAGIC = 0x5352464D; // "MFRS" in little-endian order
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16; // Bytes written to the channel at a time
+
+    /**
+     * The formats a result can be written in.
+     */
+    public enum Format {
+        EDGE_LIST, DIMACS, BINARY;
+
+        /**
+         * @param path The path of a result file.
+         * @return Format Returns BINARY for ".bin" files, DIMACS for ".flow" files and
+         * EDGE_LIST for any other file.
+         */
+        public static Format forFile(Path path) {
+            String name = path.getFileName().toString();
+            if (name.endsWith(".bin")) {
+                return BINARY;
+            }
+            return name.endsWith(".flow") ? DIMACS : EDGE_LIST;
+        }
+    }
+
+    private final WritableByteChannel channel; // Where the result is written
+    private final ByteBuffer buffer; // The bytes not written to the channel yet
+    private final byte[] digits = new byte[20]; // The digits of the number being written
+
+    /**
+     * This is the constructor of FlowResultWriter class.
+     *
+     * @param channel Where the result is written.
+     */
+    private FlowResultWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the result of a solve to a file, in the format chosen from its name.
+     *
+     * @param path        The path of the result file.
+     * @param problem     The network holding the flow, with its source and sink.
+     * @param maximumFlow The maximum possible flow from the source to the sink.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, FlowProblem problem, int maximumFlow)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, Format.forFile(path), problem, maximumFlow);
+        }
+    }
+
+    /**
+     * Writes the result of a solve to a channel. The channel is not closed.
+     *
+     * @param channel     Where the result is written.
+     * @param format      The format of the result.
+     * @param problem     The network holding the flow, with its source and sink.
+     * @param maximumFlow The maximum possible flow from the source to the sink.
+     * @throws IOException If the channel cannot be written.
+     */
+    public static void write(WritableByteChannel channel, Format format, FlowProblem problem,
+                             int maximumFlow) throws IOException {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        ResidualGraph graph = problem.graph;
+        FlowVerifier cut = new FlowVerifier();
+        cut.findSourceSide(graph, problem.source);
+        FlowResultWriter writer = new FlowResultWriter(channel);
+        if (format == Format.BINARY) {
+            writer.writeBinary(problem, maximumFlow, cut);
+        } else {
+            writer.writeText(problem, format == Format.DIMACS, maximumFlow, cut);
+        }
+        writer.flush();
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.EXTRACT, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Writes the result as an edge list or in the DIMACS flow format.
+     *
+     * @param problem     The network holding the flow, with its source and sink.
+     * @param dimacs      True for the DIMACS flow format, false for an edge list.
+     * @param maximumFlow The maximum possible flow from the source to the sink.
+     * @param cut         Holds the source side of the minimum cut.
+     * @throws IOException If the channel cannot be written.
+     */
+    private void writeText(FlowProblem problem, boolean dimacs, int maximumFlow,
+                           FlowVerifier cut) throws IOException {
+        ResidualGraph graph = problem.graph;
+        int offset = dimacs ? 1 : problem.nodeOffset;
+        putText(dimacs ? "s " : "# maximum flow ");
+        putNumber(maximumFlow);
+        putText("\n");
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                int flow = graph.flow(arc);
+                if (flow > 0) {
+                    putText(dimacs ? "f " : "");
+                    putNumber(u + offset);
+                    putText(" ");
+                    putNumber(graph.target(arc) + offset);
+                    putText(" ");
+                    putNumber(flow);
+                    putText("\n");
+                }
+            }
+        }
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            if (!cut.isOnSourceSide(u)) {
+                continue;
+            }
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                int v = graph.target(arc);
+                if (!cut.isOnSourceSide(v) && graph.capacity(arc) > 0) {
+                    putText(dimacs ? "c cut " : "# cut ");
+                    putNumber(u + offset);
+                    putText(" ");
+                    putNumber(v + offset);
+                    putText("\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the result in the binary format. The edges are counted before they are
+     * written, so the channel does not have to support seeking.
+     *
+     * @param problem     The network holding the flow, with its source and sink.
+     * @param maximumFlow The maximum possible flow from the source to the sink.
+     * @param cut         Holds the source side of the minimum cut.
+     * @throws IOException If the channel cannot be written.
+     */
+    private void writeBinary(FlowProblem problem, int maximumFlow, FlowVerifier cut)
+            throws IOException {
+        ResidualGraph graph = problem.graph;
+        int noOfNodes = graph.getNoOfNodes();
+        int noOfFlowEdges = 0;
+        int noOfCutEdges = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                if (graph.flow(arc) > 0) {
+                    noOfFlowEdges++;
+                }
+                if (isCutArc(graph, cut, u, arc)) {
+                    noOfCutEdges++;
+                }
+            }
+        }
+
+        putInt(MAGIC);
+        putInt(VERSION);
+        putInt(noOfNodes);
+        putInt(problem.source);
+        putInt(problem.sink);
+        putInt(problem.nodeOffset);
+        putInt(maximumFlow);
+        putInt(noOfFlowEdges);
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                int flow = graph.flow(arc);
+                if (flow > 0) {
+                    putInt(u);
+                    putInt(graph.target(arc));
+                    putInt(flow);
+                }
+            }
+        }
+        putInt(noOfCutEdges);
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                if (isCutArc(graph, cut, u, arc)) {
+                    putInt(u);
+                    putInt(graph.target(arc));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param graph The residual graph holding the flow.
+     * @param cut   Holds the source side of the minimum cut.
+     * @param u     The start node of the arc.
+     * @param arc   A forward arc of u.
+     * @return boolean Returns true if the arc is an edge of the minimum cut.
+     */
+    private static boolean isCutArc(ResidualGraph graph, FlowVerifier cut, int u, int arc) {
+        return cut.isOnSourceSide(u) && !cut.isOnSourceSide(graph.target(arc)) &&
+                graph.capacity(arc) > 0;
+    }
+
+    /**
+     * @param text The ASCII text to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    private void putText(String text) throws IOException {
+        if (buffer.remaining() < text.length()) {
+            flush();
+        }
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Writes the decimal digits of a number, without creating a String for it.
+     *
+     * @param value The number to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    private void putNumber(long value) throws IOException {
+        if (buffer.remaining() < digits.length + 1) {
+            flush();
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (length > 0) {
+            buffer.put(digits[--length]);
+        }
+    }
+
+    /**
+     * @param value The little-endian int to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    private void putInt(int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes the bytes collected so far to the channel.
+     *
+     * @throws IOException If the channel cannot be written.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * This FlowVerifier class checks that the flow held in a residual graph is a maximum
+ * flow, in time linear to the size of the graph. It checks, in this order:
+ * - Capacity: no arc carries more flow than its capacity, and every arc carries the
+ *   negative of the flow of its paired arc.
+ * - Conservation: the flow entering every node other than the source and the sink
+ *   equals the flow leaving it.
+ * - Value: the flow leaving the source equals the maximum flow claimed by the solver
+ *   and the flow entering the sink.
+ * - Optimality: the nodes reachable from the source in the residual graph form a cut
+ *   that does not contain the sink, and the capacity of that cut equals the flow.
+ *
+ * The first violation found is reported. After a successful check the minimum cut
+ * can be read from the verifier.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class FlowVerifier {
+    private long[] netFlow; // Flow leaving each node minus flow entering it
+    private boolean[] sourceSide; // True for the nodes reachable from the source
+    private int[] queue; // Queue of nodes to explore while finding the cut
+    private long cutCapacity; // Capacity of the minimum cut found by the last check
+
+    /**
+     * Checks the flow held in the residual graph.
+     *
+     * @param graph       The residual graph holding the flow.
+     * @param source      The source node of the given graph.
+     * @param sink        The sink node of the given graph.
+     * @param maximumFlow The maximum flow claimed by the solver.
+     * @return String Returns a description of the first violation, or null if the flow
+     * is a maximum flow.
+     */
+    public String verify(ResidualGraph graph, int source, int sink, long maximumFlow) {
+        int noOfNodes = graph.getNoOfNodes();
+        if (netFlow == null || netFlow.length < noOfNodes) {
+            netFlow = new long[noOfNodes];
+            sourceSide = new boolean[noOfNodes];
+            queue = new int[noOfNodes];
+        }
+
+        // Capacity constraints and the net flow of every node in one pass over the arcs
+        for (int u = 0; u < noOfNodes; u++) {
+            long net = 0;
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int flow = graph.flow(arc);
+                if (graph.residual(arc) < 0) {
+                    return "Arc " + u + " - " + graph.target(arc) + " carries " + flow +
+                            " which is more than its capacity " + graph.capacity(arc);
+                }
+                if (flow + graph.flow(graph.reverse(arc)) != 0) {
+                    return "Arc " + u + " - " + graph.target(arc) +
+                            " does not match the flow of its reverse arc";
+                }
+                net += flow;
+            }
+            netFlow[u] = net;
+        }
+
+        // Conservation at every node other than the source and the sink
+        for (int u = 0; u < noOfNodes; u++) {
+            if (u != source && u != sink && netFlow[u] != 0) {
+                return "Node " + u + " does not conserve flow (" +
+                        (netFlow[u] > 0 ? "sends " + netFlow[u] + " more than it receives"
+                                : "receives " + -netFlow[u] + " more than it sends") + ")";
+            }
+        }
+        if (netFlow[source] != maximumFlow) {
+            return "The source sends " + netFlow[source] + " but the maximum flow is " +
+                    maximumFlow;
+        }
+        if (-netFlow[sink] != maximumFlow) {
+            return "The sink receives " + -netFlow[sink] + " but the maximum flow is " +
+                    maximumFlow;
+        }
+
+        // The nodes reachable from the source through arcs with capacity left
+        int tail = findSourceSide(graph, source);
+        if (sourceSide[sink]) {
+            return "The flow is not maximum, an augmenting path to the sink is left";
+        }
+
+        // Capacity of the arcs leaving the reachable nodes
+        cutCapacity = 0;
+        for (int i = 0; i < tail; i++) {
+            int u = queue[i];
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                if (!sourceSide[graph.target(arc)]) {
+                    cutCapacity += graph.capacity(arc);
+                }
+            }
+        }
+        if (cutCapacity != maximumFlow) {
+            return "The minimum cut has capacity " + cutCapacity + " but the maximum flow is " +
+                    maximumFlow;
+        }
+        return null;
+    }
+
+    /**
+     * Finds the nodes reachable from the source through arcs with capacity left. When
+     * the graph holds a maximum flow, these nodes are the source side of a minimum cut.
+     *
+     * @param graph  The residual graph holding the flow.
+     * @param source The source node of the given graph.
+     * @return int Returns the number of nodes on the source side.
+     */
+    public int findSourceSide(ResidualGraph graph, int source) {
+        int noOfNodes = graph.getNoOfNodes();
+        if (sourceSide == null || sourceSide.length < noOfNodes) {
+            netFlow = new long[noOfNodes];
+            sourceSide = new boolean[noOfNodes];
+            queue = new int[noOfNodes];
+        }
+        for (int u = 0; u < noOfNodes; u++) {
+            sourceSide[u] = false;
+        }
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        sourceSide[source] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                if (!sourceSide[v] && graph.residual(arc) > 0) {
+                    sourceSide[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * @param node A node of the graph checked or searched last.
+     * @return boolean Returns true if the node is on the source side of the minimum cut.
+     */
+    public boolean isOnSourceSide(int node) {
+        return sourceSide[node];
+    }
+
+    /**
+     * @return long Returns the capacity of the minimum cut found by the last check.
+     */
+    public long getCutCapacity() {
+        return cutCapacity;
+    }
+
+}
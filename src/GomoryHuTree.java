@@ -0,0 +1,317 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * This GomoryHuTree class builds a Gomory-Hu tree of a graph, so the maximum flow
+ * between any two nodes can be read from the tree instead of solving the graph again.
+ * The maximum flow between two nodes is the smallest capacity on the path between them
+ * in the tree.
+ *
+ * A Gomory-Hu tree only exists for undirected graphs, so the direction of the edges is
+ * ignored: every edge can carry its capacity either way, and two edges joining the same
+ * nodes in opposite directions add up.
+ *
+ * The tree is built with Gusfield's algorithm, which finds a minimum cut between each
+ * node and its current parent on the whole graph, V - 1 cuts in total, and never
+ * contracts the graph. Every cut is solved on a workspace that shares the arcs of one
+ * undirected graph, so each worker thread only needs memory linear in the size of the
+ * graph. Which parent a node is cut from depends on the cuts of the nodes before it, so
+ * the cuts of the next few nodes are found in parallel from the parents known so far
+ * and then applied in order; a cut whose parent has changed in the meantime is found
+ * again in the next round.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GomoryHuTree {
+    private final int noOfNodes; // The number of nodes of the graph
+    private final int[] parent; // The parent of each node in the tree (-1 for the root)
+    private final int[] parentCapacity; // The capacity of the edge to the parent
+    private final int[] depth; // The number of edges from each node to the root
+
+    /**
+     * This Cut class is a minimum cut between a node and the parent it had when the
+     * cut was found.
+     */
+    private static class Cut {
+        private final int parent; // The node the cut separates the node from
+        private final int capacity; // The capacity of the cut
+        private final boolean[] nodeSide; // True for the nodes on the side of the node
+
+        Cut(int parent, int capacity, boolean[] nodeSide) {
+            this.parent = parent;
+            this.capacity = capacity;
+            this.nodeSide = nodeSide;
+        }
+    }
+
+    /**
+     * This Worker class holds what one thread needs to find a cut: a workspace of the
+     * undirected graph, a solver and a verifier that reads the cut from the flow.
+     */
+    private static class Worker {
+        private final ArrayResidualGraph graph; // The residual capacities of this worker
+        private final MaxFlowSolver solver; // The solver of this worker
+        private final FlowVerifier verifier = new FlowVerifier(); // Finds the cut
+
+        Worker(ArrayResidualGraph graph, MaxFlowSolver solver) {
+            this.graph = graph;
+            this.solver = solver;
+        }
+
+        /**
+         * Finds a minimum cut between two nodes.
+         *
+         * @param node   The node on the source side.
+         * @param parent The node on the sink side.
+         * @return Cut Returns the cut found.
+         */
+        Cut cut(int node, int parent) {
+            graph.reset();
+            int capacity = solver.maxFlow(graph, node, parent);
+            String violation = verifier.verify(graph, node, parent, capacity);
+            if (violation != null) {
+                throw new IllegalStateException(violation);
+            }
+            boolean[] nodeSide = new boolean[graph.getNoOfNodes()];
+            for (int u = 0; u < nodeSide.length; u++) {
+                nodeSide[u] = verifier.isOnSourceSide(u);
+            }
+            return new Cut(parent, capacity, nodeSide);
+        }
+    }
+
+    /**
+     * This is the constructor of GomoryHuTree class. The tree is built on the common
+     * fork-join pool.
+     *
+     * @param graph         The graph whose tree is built.
+     * @param solverFactory Creates the solver used for each minimum cut.
+     */
+    public GomoryHuTree(ResidualGraph graph, Supplier<MaxFlowSolver> solverFactory) {
+        this(graph, solverFactory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This is the constructor of GomoryHuTree class.
+     *
+     * @param graph         The graph whose tree is built.
+     * @param solverFactory Creates the solver used for each minimum cut.
+     * @param pool          The pool the minimum cuts are found on.
+     */
+    public GomoryHuTree(ResidualGraph graph, Supplier<MaxFlowSolver> solverFactory,
+                        ForkJoinPool pool) {
+        noOfNodes = graph.getNoOfNodes();
+        parent = new int[noOfNodes];
+        parentCapacity = new int[noOfNodes];
+        depth = new int[noOfNodes];
+        if (noOfNodes == 0) {
+            return;
+        }
+
+        ArrayResidualGraph undirected = undirected(graph);
+        ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<>();
+        int batchSize = Math.max(1, pool.getParallelism());
+        Map<Integer, Cut> found = new HashMap<>(); // Cuts found but not applied yet
+
+        // Every node starts as a child of node 0
+        parent[0] = -1;
+        int next = 1; // The next node whose cut is applied
+        while (next < noOfNodes) {
+            // Find the cuts of the next nodes whose parent is not known to have changed
+            List<Integer> nodes = new ArrayList<>();
+            List<Callable<Cut>> tasks = new ArrayList<>();
+            for (int s = next; s < Math.min(noOfNodes, next + batchSize); s++) {
+                Cut cut = found.get(s);
+                if (cut == null || cut.parent != parent[s]) {
+                    int node = s;
+                    int t = parent[s];
+                    nodes.add(node);
+                    tasks.add(() -> {
+                        Worker worker = workers.poll();
+                        if (worker == null) {
+                            worker = new Worker(undirected.newWorkspace(), solverFactory.get());
+                        }
+                        try {
+                            return worker.cut(node, t);
+                        } finally {
+                            workers.add(worker);
+                        }
+                    });
+                }
+            }
+            List<Future<Cut>> results = pool.invokeAll(tasks);
+            for (int i = 0; i < nodes.size(); i++) {
+                found.put(nodes.get(i), get(results.get(i)));
+            }
+
+            // Apply the cuts in order while they were found from the right parent. The
+            // first one always was, so every round applies at least one cut.
+            Cut cut;
+            while (next < noOfNodes && (cut = found.get(next)) != null &&
+                    cut.parent == parent[next]) {
+                found.remove(next);
+                apply(next, cut);
+                next++;
+            }
+        }
+        findDepths();
+    }
+
+    /**
+     * Builds the undirected graph, with an arc each way for every edge that is not a
+     * loop. Loops never join two sides of a cut.
+     *
+     * @param graph The given graph.
+     * @return ArrayResidualGraph Returns the undirected graph.
+     */
+    private static ArrayResidualGraph undirected(ResidualGraph graph) {
+        int noOfEdges = graph.getNoOfEdges();
+        int[] from = new int[2 * noOfEdges];
+        int[] to = new int[2 * noOfEdges];
+        int[] capacity = new int[2 * noOfEdges];
+        int arcs = 0;
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                int v = graph.target(arc);
+                if (v != u) {
+                    from[arcs] = u;
+                    to[arcs] = v;
+                    capacity[arcs++] = graph.capacity(arc);
+                    from[arcs] = v;
+                    to[arcs] = u;
+                    capacity[arcs++] = graph.capacity(arc);
+                }
+            }
+        }
+        return new ArrayResidualGraph(graph.getNoOfNodes(), arcs, from, to, capacity);
+    }
+
+    /**
+     * Waits for the cut of a task.
+     *
+     * @param result The result of the task.
+     * @return Cut Returns the cut found by the task.
+     */
+    private static Cut get(Future<Cut> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The tree was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A minimum cut failed", e.getCause());
+        }
+    }
+
+    /**
+     * Applies the cut between a node and its parent: the other children of the parent
+     * on the side of the node become its children, and if the parent of the parent is
+     * on that side too, the node takes the place of the parent in the tree.
+     *
+     * @param s   The node whose cut is applied.
+     * @param cut The cut between the node and its parent.
+     */
+    private void apply(int s, Cut cut) {
+        int t = cut.parent;
+        parentCapacity[s] = cut.capacity;
+        for (int u = 0; u < noOfNodes; u++) {
+            if (u != s && cut.nodeSide[u] && parent[u] == t) {
+                parent[u] = s;
+            }
+        }
+        if (parent[t] >= 0 && cut.nodeSide[parent[t]]) {
+            parent[s] = parent[t];
+            parent[t] = s;
+            parentCapacity[s] = parentCapacity[t];
+            parentCapacity[t] = cut.capacity;
+        }
+    }
+
+    /**
+     * Fills in the depth of every node by following the parents up to the first node
+     * whose depth is known, then filling in the nodes passed on the way back down.
+     */
+    private void findDepths() {
+        boolean[] known = new boolean[noOfNodes];
+        int[] path = new int[noOfNodes];
+        for (int root = 0; root < noOfNodes; root++) {
+            if (parent[root] < 0) {
+                known[root] = true;
+            }
+        }
+        for (int u = 0; u < noOfNodes; u++) {
+            int length = 0;
+            int v = u;
+            while (!known[v]) {
+                path[length++] = v;
+                v = parent[v];
+            }
+            while (length > 0) {
+                int w = path[--length];
+                depth[w] = depth[v] + 1;
+                known[w] = true;
+                v = w;
+            }
+        }
+    }
+
+    /**
+     * Finds the maximum flow between two nodes, which is the smallest capacity on the
+     * path between them in the tree.
+     *
+     * @param u The first node.
+     * @param v The second node.
+     * @return int Returns the maximum possible flow between the two nodes.
+     */
+    public int minCut(int u, int v) {
+        if (u == v) {
+            throw new IllegalArgumentException("The two nodes must be different");
+        }
+        int cut = Integer.MAX_VALUE;
+        while (u != v) {
+            if (depth[u] >= depth[v]) {
+                cut = Math.min(cut, parentCapacity[u]);
+                u = parent[u];
+            } else {
+                cut = Math.min(cut, parentCapacity[v]);
+                v = parent[v];
+            }
+        }
+        return cut;
+    }
+
+    /**
+     * @param node The node whose parent is requested.
+     * @return int Returns the parent of the node in the tree, or -1 for the root.
+     */
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * @param node The node whose edge is requested.
+     * @return int Returns the capacity of the edge from the node to its parent.
+     */
+    public int getParentCapacity(int node) {
+        return parentCapacity[node];
+    }
+
+    /**
+     * @return int Returns the number of nodes of the tree.
+     */
+    public int getNoOfNodes() {
+        return noOfNodes;
+    }
+
+}
@@ -0,0 +1,429 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This GraphLoader class reads a flow network from a file in a single pass. The bytes
+ * are parsed straight from a buffered file channel, without creating a String for
+ * every token, and the edges are collected in int arrays before the CSR graph is
+ * built. The edges can also be collected outside of the heap by an OffHeapGraphBuilder,
+ * for graphs too large for the heap. Two formats are read, and the source and sink are
+ * taken from the file:
+ *
+ * DIMACS max-flow (nodes numbered from 1):
+ *   c comment
+ *   p max [nodes] [arcs]
+ *   n [source] s
+ *   n [sink] t
+ *   a [from] [to] [capacity]
+ *
+ * Edge list (nodes numbered from 0, lines starting with # are comments):
+ *   [nodes] [source] [sink]
+ *   [from] [to] [capacity]
+ *
+ * Self loops are left out since they can never carry flow from the source to the sink.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphLoader {
+    private static final int BUFFER_SIZE = 1 << 20; // Bytes read from the file at a time
+    private static final int MIN_ARC_BYTES = 8; // The shortest arc line, "a 1 2 0\n"
+    private static final int NODE_BYTES = 8; // Heap used by each node of the CSR graph
+    // The read buffer of each thread, kept so that loading many files one after the
+    // other does not allocate direct memory for every file
+    private static final ThreadLocal<ByteBuffer> BUFFERS =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private final FileChannel channel; // The file being read
+    private final ByteBuffer buffer; // The bytes read but not parsed yet
+    private int line = 1; // The current line, used in error messages
+
+    private final OffHeapGraphBuilder offHeap; // Collects the edges outside of the heap, or null
+    private int noOfEdges; // The number of edges collected so far
+    private int[] from = new int[1024]; // The start node of each edge
+    private int[] to = new int[1024]; // The end node of each edge
+    private int[] capacity = new int[1024]; // The capacity of each edge
+
+    /**
+     * This is the constructor of GraphLoader class.
+     *
+     * @param channel The file to read.
+     * @param offHeap Collects the edges outside of the heap, or null to use the heap.
+     */
+    private GraphLoader(FileChannel channel, OffHeapGraphBuilder offHeap) {
+        this.channel = channel;
+        this.offHeap = offHeap;
+        this.buffer = BUFFERS.get();
+        buffer.clear().flip(); // Start with an empty buffer
+    }
+
+    /**
+     * Reads a flow network from a DIMACS max-flow or edge-list file. The format is
+     * chosen from the first line that is not a comment. Binary snapshots written by
+     * GraphSnapshot are mapped into memory instead of being parsed.
+     *
+     * @param path The path of the file.
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the file cannot be read or is not in a known format.
+     */
+    public static FlowProblem load(Path path) throws IOException {
+        return load(path, null);
+    }
+
+    /**
+     * Reads a flow network from a DIMACS max-flow or edge-list file into the storage of
+     * the given builder, outside of the heap. Snapshots are mapped into memory as
+     * usual.
+     *
+     * @param path    The path of the file.
+     * @param offHeap Builds the graph outside of the heap, or null to use the heap.
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the file cannot be read or is not in a known format.
+     */
+    public static FlowProblem load(Path path, OffHeapGraphBuilder offHeap) throws IOException {
+        if (GraphSnapshot.isSnapshot(path)) {
+            return GraphSnapshot.map(path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            GraphLoader loader = new GraphLoader(channel, offHeap);
+            try {
+                return loader.read();
+            } catch (EOFException e) {
+                throw new IOException(path + ": unexpected end of file on line " + loader.line);
+            } finally {
+                // Deletes the staged edges if the file failed to load before the build
+                if (offHeap != null) {
+                    offHeap.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips the comments and reads the file in the format of its first line.
+     *
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the file cannot be read or is not in a known format.
+     */
+    private FlowProblem read() throws IOException {
+        while (true) {
+            skipSpaces();
+            int next = peek();
+            if (next == 'c' || next == '#') {
+                skipLine();
+            } else if (next == '\n') {
+                nextLine();
+            } else if (next == 'p') {
+                return readDimacs();
+            } else if (next >= '0' && next <= '9') {
+                return readEdgeList();
+            } else {
+                throw error("expected a problem line");
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of a DIMACS max-flow file, starting at the problem line.
+     *
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the file cannot be read or is not a valid DIMACS file.
+     */
+    private FlowProblem readDimacs() throws IOException {
+        take(); // The p of the problem line
+        skipSpaces();
+        if (take() != 'm' || take() != 'a' || take() != 'x') {
+            throw error("only max-flow problems (p max) are supported");
+        }
+        int noOfNodes = readNodeCount();
+        int noOfArcs = readInt();
+        if (offHeap == null) {
+            // The header is not trusted: a file cannot hold more arcs than fit in its bytes
+            ensureEdges((int) Math.min(noOfArcs, channel.size() / MIN_ARC_BYTES));
+        }
+        skipLine();
+
+        int source = -1;
+        int sink = -1;
+        while (skipSpaces() >= 0) {
+            int type = take();
+            if (type == 'a') {
+                int u = readNode(noOfNodes, 1);
+                int v = readNode(noOfNodes, 1);
+                addEdge(u, v, readCapacity());
+            } else if (type == 'n') {
+                int node = readNode(noOfNodes, 1);
+                skipSpaces();
+                int kind = take();
+                if (kind == 's') {
+                    source = node;
+                } else if (kind == 't') {
+                    sink = node;
+                } else {
+                    throw error("a node line must end with s or t");
+                }
+            } else if (type != 'c' && type != '\n') {
+                throw error("unknown line type " + (char) type);
+            }
+            if (type != '\n') {
+                skipLine();
+            } else {
+                line++;
+            }
+        }
+        return build(noOfNodes, source, sink, 1);
+    }
+
+    /**
+     * Reads the rest of an edge-list file, starting at the line with the number of
+     * nodes, the source and the sink.
+     *
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the file cannot be read or is not a valid edge list.
+     */
+    private FlowProblem readEdgeList() throws IOException {
+        int noOfNodes = readNodeCount();
+        int source = readNode(noOfNodes, 0);
+        int sink = readNode(noOfNodes, 0);
+        skipLine();
+
+        while (skipSpaces() >= 0) {
+            int next = peek();
+            if (next == '#') {
+                skipLine();
+            } else if (next == '\n') {
+                nextLine();
+            } else {
+                int u = readNode(noOfNodes, 0);
+                int v = readNode(noOfNodes, 0);
+                addEdge(u, v, readCapacity());
+                skipLine();
+            }
+        }
+        return build(noOfNodes, source, sink, 0);
+    }
+
+    /**
+     * Checks the source and sink and builds the CSR graph from the edges collected.
+     *
+     * @param noOfNodes  The number of nodes of the network.
+     * @param source     The source node of the network.
+     * @param sink       The sink node of the network.
+     * @param nodeOffset The number added to the node ids when they are shown.
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the source or sink is missing.
+     */
+    private FlowProblem build(int noOfNodes, int source, int sink, int nodeOffset)
+            throws IOException {
+        if (source < 0 || sink < 0) {
+            throw new IOException("The file does not name a source and a sink node");
+        }
+        if (source == sink) {
+            throw new IOException("The source and the sink must be different nodes");
+        }
+        ResidualGraph graph = offHeap != null ? offHeap.build(noOfNodes) :
+                new ArrayResidualGraph(noOfNodes, noOfEdges, from, to, capacity);
+        return new FlowProblem(graph, source, sink, nodeOffset);
+    }
+
+    /**
+     * Adds an edge to the edges collected, leaving out self loops.
+     *
+     * @param u The start node of the edge.
+     * @param v The end node of the edge.
+     * @param c The capacity of the edge.
+     * @throws IOException If the staging file of the off-heap builder cannot be written.
+     */
+    private void addEdge(int u, int v, int c) throws IOException {
+        if (u == v) {
+            return;
+        }
+        if (offHeap != null) {
+            offHeap.addEdge(u, v, c);
+            return;
+        }
+        ensureEdges(noOfEdges + 1);
+        from[noOfEdges] = u;
+        to[noOfEdges] = v;
+        capacity[noOfEdges] = c;
+        noOfEdges++;
+    }
+
+    /**
+     * Grows the edge arrays so they can hold the given number of edges.
+     *
+     * @param size The number of edges the arrays must hold.
+     */
+    private void ensureEdges(int size) {
+        if (size > from.length) {
+            int length = Math.max(size, 2 * from.length);
+            from = Arrays.copyOf(from, length);
+            to = Arrays.copyOf(to, length);
+            capacity = Arrays.copyOf(capacity, length);
+        }
+    }
+
+    /**
+     * Reads a node id and checks that it belongs to the network.
+     *
+     * @param noOfNodes The number of nodes of the network.
+     * @param firstNode The id of the first node in the file (0 or 1).
+     * @return int Returns the node counted from 0.
+     * @throws IOException If the id is not a node of the network.
+     */
+    private int readNode(int noOfNodes, int firstNode) throws IOException {
+        int node = readInt() - firstNode;
+        if (node < 0 || node >= noOfNodes) {
+            throw error("node " + (node + firstNode) + " is out of range");
+        }
+        return node;
+    }
+
+    /**
+     * Reads the number of nodes of the network. The number is not trusted, so a graph
+     * kept on the heap is rejected if its nodes alone would not fit in the heap.
+     *
+     * @return int Returns the number of nodes.
+     * @throws IOException If there is no number or the nodes would not fit in the heap.
+     */
+    private int readNodeCount() throws IOException {
+        int noOfNodes = readInt();
+        long bytes = (long) noOfNodes * NODE_BYTES;
+        if (offHeap == null && bytes > Runtime.getRuntime().maxMemory()) {
+            throw error(noOfNodes + " nodes do not fit in the heap");
+        }
+        return noOfNodes;
+    }
+
+    /**
+     * Reads the capacity of an edge.
+     *
+     * @return int Returns the capacity.
+     * @throws IOException If there is no number or the capacity is negative.
+     */
+    private int readCapacity() throws IOException {
+        if (skipSpaces() == '-') {
+            throw error("capacities cannot be negative");
+        }
+        return readInt();
+    }
+
+    /**
+     * Reads a non-negative integer made of decimal digits, after any spaces.
+     *
+     * @return int Returns the integer read.
+     * @throws IOException If there is no integer or it does not fit in an int.
+     */
+    private int readInt() throws IOException {
+        skipSpaces();
+        int digit = peek() - '0';
+        if (digit < 0 || digit > 9) {
+            throw error("expected a number");
+        }
+        long value = 0;
+        while (digit >= 0 && digit <= 9) {
+            take();
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                throw error("number too large");
+            }
+            int next = peekOrEnd();
+            digit = next < 0 ? -1 : next - '0';
+        }
+        return (int) value;
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns, but not line breaks.
+     *
+     * @return int Returns the next byte, or -1 at the end of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    private int skipSpaces() throws IOException {
+        int next;
+        while ((next = peekOrEnd()) == ' ' || next == '\t' || next == '\r') {
+            take();
+        }
+        return next;
+    }
+
+    /**
+     * Skips everything up to and including the next line break.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    private void skipLine() throws IOException {
+        int next;
+        while ((next = peekOrEnd()) >= 0) {
+            take();
+            if (next == '\n') {
+                line++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Skips a line break.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    private void nextLine() throws IOException {
+        take();
+        line++;
+    }
+
+    /**
+     * @return int Returns the next byte without consuming it.
+     * @throws IOException If the file cannot be read or has ended.
+     */
+    private int peek() throws IOException {
+        int next = peekOrEnd();
+        if (next < 0) {
+            throw new EOFException();
+        }
+        return next;
+    }
+
+    /**
+     * @return int Returns the next byte and consumes it.
+     * @throws IOException If the file cannot be read or has ended.
+     */
+    private int take() throws IOException {
+        int next = peek();
+        buffer.get();
+        return next;
+    }
+
+    /**
+     * @return int Returns the next byte without consuming it, or -1 at the end of the
+     * file.
+     * @throws IOException If the file cannot be read.
+     */
+    private int peekOrEnd() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read <= 0) {
+                return -1;
+            }
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    /**
+     * @param message What is wrong with the file.
+     * @return IOException Returns an exception telling the line of the error.
+     */
+    private IOException error(String message) {
+        return new IOException("Line " + line + ": " + message);
+    }
+
+}
@@ -0,0 +1,453 @@
+import java.util.Arrays;
+
+/**
+ * This GraphReducer class shrinks a flow network before it is solved, without
+ * changing its maximum flow:
+ * - Pruning: nodes that are not on any path from the source to the sink are removed
+ *   together with their edges, and so are the edges entering the source, the edges
+ *   leaving the sink and the edges without capacity.
+ * - Parallel edges: edges joining the same two nodes in the same direction are merged
+ *   into one edge with the sum of their capacities.
+ * - Series chains: a node with exactly one edge entering it and one edge leaving it is
+ *   removed, and its two edges are replaced by one edge with the smaller capacity.
+ *
+ * Merging edges can create new chains and removing chains can create new parallel
+ * edges, so both steps are repeated until the graph stops shrinking.
+ *
+ * Every edge of the reduced graph remembers how it was built from the edges of the
+ * given graph, so a flow found on the reduced graph can be expanded back onto the edges
+ * of the given graph with expandFlow().
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphReducer {
+    // The kinds of combined edges
+    private static final byte ORIGINAL = 0; // An edge of the given graph
+    private static final byte SERIES = 1; // Two edges one after the other
+    private static final byte PARALLEL = 2; // Two edges side by side
+
+    private final ResidualGraph graph; // The given graph
+    private final int source; // The source node of the given graph
+    private final int sink; // The sink node of the given graph
+    private final int noOfNodes; // The number of nodes of the given graph
+
+    // The edges while the graph is reduced, one slot for each edge of the given graph
+    private final int[] from; // The start node of each edge
+    private final int[] to; // The end node of each edge
+    private final int[] capacity; // The capacity of each edge
+    private final int[] combined; // The combined edge each slot stands for
+    private final boolean[] alive; // False once the edge has been removed
+    private final int[] replacedBy; // The slot an edge was merged into (-1 if none)
+    private final int[] inDegree; // The number of live edges entering each node
+    private final int[] outDegree; // The number of live edges leaving each node
+
+    // The combined edges as a binary tree: the original arc for ORIGINAL edges, and the
+    // two parts of SERIES and PARALLEL edges
+    private final byte[] kind;
+    private final int[] left;
+    private final int[] right;
+    private final int[] combinedCapacity;
+    private int noOfCombined;
+
+    private ResidualGraph reducedGraph; // The graph left after the reduction
+    private int[] arcCombined; // The combined edge of each forward arc of the reduced graph
+    private int reducedSource; // The source node in the reduced graph
+    private int reducedSink; // The sink node in the reduced graph
+
+    /**
+     * This is the constructor of GraphReducer class. It reduces the given graph right
+     * away.
+     *
+     * @param graph  The graph to reduce.
+     * @param source The source node of the given graph.
+     * @param sink   The sink node of the given graph.
+     */
+    public GraphReducer(ResidualGraph graph, int source, int sink) {
+        if (source == sink) {
+            throw new IllegalArgumentException("The source and the sink must be different");
+        }
+        this.graph = graph;
+        this.source = source;
+        this.sink = sink;
+        noOfNodes = graph.getNoOfNodes();
+        int noOfEdges = 0; // Not always half the arcs, as forward arcs may be paired
+        for (int u = 0; u < noOfNodes; u++) {
+            noOfEdges += graph.forwardEnd(u) - graph.firstArc(u);
+        }
+
+        from = new int[noOfEdges];
+        to = new int[noOfEdges];
+        capacity = new int[noOfEdges];
+        combined = new int[noOfEdges];
+        alive = new boolean[noOfEdges];
+        replacedBy = new int[noOfEdges];
+        inDegree = new int[noOfNodes];
+        outDegree = new int[noOfNodes];
+        // Every merge adds one combined edge and removes one live edge
+        kind = new byte[2 * noOfEdges];
+        left = new int[2 * noOfEdges];
+        right = new int[2 * noOfEdges];
+        combinedCapacity = new int[2 * noOfEdges];
+
+        prune();
+        boolean changed = true;
+        while (changed) {
+            boolean merged = mergeParallelEdges();
+            boolean contracted = contractChains();
+            changed = merged || contracted;
+        }
+        build();
+    }
+
+    /**
+     * Keeps the edges that lie on a path from the source to the sink, which are the
+     * edges whose start node is reached from the source and whose end node reaches the
+     * sink.
+     */
+    private void prune() {
+        boolean[] fromSource = reach(source, sink, true);
+        boolean[] toSink = reach(sink, source, false);
+        int edge = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                int v = graph.target(arc);
+                from[edge] = u;
+                to[edge] = v;
+                capacity[edge] = graph.capacity(arc);
+                kind[edge] = ORIGINAL;
+                left[edge] = arc;
+                combinedCapacity[edge] = capacity[edge];
+                combined[edge] = edge;
+                replacedBy[edge] = -1;
+                alive[edge] = capacity[edge] > 0 && u != v && fromSource[u] && toSink[v] &&
+                        v != source && u != sink;
+                if (alive[edge]) {
+                    outDegree[u]++;
+                    inDegree[v]++;
+                }
+                edge++;
+            }
+        }
+        noOfCombined = edge;
+    }
+
+    /**
+     * Finds the nodes reached from a node along the edges with capacity, without
+     * passing through a given node.
+     *
+     * @param start   The node the search starts from.
+     * @param stop    The node whose edges are not followed.
+     * @param forward True to follow the edges forward, false to follow them backward.
+     * @return boolean[] Returns true for every node reached.
+     */
+    private boolean[] reach(int start, int stop, boolean forward) {
+        boolean[] reached = new boolean[noOfNodes];
+        int[] queue = new int[noOfNodes];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        reached[start] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            if (u == stop) {
+                continue;
+            }
+            // All arcs are scanned, as an edge entering u may be paired with a forward arc
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int edgeArc = forward ? arc : graph.reverse(arc);
+                int v = graph.target(arc);
+                if (!reached[v] && graph.capacity(edgeArc) > 0) {
+                    reached[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Merges the live edges that join the same two nodes in the same direction.
+     *
+     * @return boolean Returns true if any edges were merged.
+     */
+    private boolean mergeParallelEdges() {
+        int[] offsets = outLists();
+        int[] edges = sortedBy(offsets, from);
+        int[] lastEdge = new int[noOfNodes]; // The edge to each node seen from u
+        Arrays.fill(lastEdge, -1);
+        boolean merged = false;
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int edge = edges[i];
+                int v = to[edge];
+                int kept = lastEdge[v];
+                if (kept >= 0 && from[kept] == u) {
+                    long sum = (long) capacity[kept] + capacity[edge];
+                    capacity[kept] = (int) Math.min(Integer.MAX_VALUE, sum);
+                    combined[kept] = combine(PARALLEL, combined[kept], combined[edge],
+                            capacity[kept]);
+                    remove(edge, kept);
+                    merged = true;
+                } else {
+                    lastEdge[v] = edge;
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Removes the nodes other than the source and the sink that have exactly one edge
+     * entering them and one edge leaving them. The edge entering the node is extended
+     * to the end of the edge leaving it. If both edges join the same two nodes they
+     * form a loop that can never carry flow to the sink, and both are removed.
+     *
+     * @return boolean Returns true if any node was removed.
+     */
+    private boolean contractChains() {
+        int[] outOffsets = outLists();
+        int[] outEdges = sortedBy(outOffsets, from);
+        int[] inOffsets = new int[noOfNodes + 1];
+        for (int edge = 0; edge < from.length; edge++) {
+            if (alive[edge]) {
+                inOffsets[to[edge] + 1]++;
+            }
+        }
+        for (int u = 0; u < noOfNodes; u++) {
+            inOffsets[u + 1] += inOffsets[u];
+        }
+        int[] inEdges = sortedBy(inOffsets, to);
+
+        boolean contracted = false;
+        for (int v = 0; v < noOfNodes; v++) {
+            if (v == source || v == sink || inDegree[v] != 1 || outDegree[v] != 1) {
+                continue;
+            }
+            int in = liveEdge(inEdges, inOffsets[v], inOffsets[v + 1], to, v);
+            int out = liveEdge(outEdges, outOffsets[v], outOffsets[v + 1], from, v);
+            int u = from[in];
+            int w = to[out];
+            inDegree[v] = 0;
+            outDegree[v] = 0;
+            if (u == w) {
+                alive[in] = false;
+                alive[out] = false;
+                outDegree[u]--;
+                inDegree[u]--;
+            } else {
+                // The edge leaving v is merged into the edge entering it
+                to[in] = w;
+                capacity[in] = Math.min(capacity[in], capacity[out]);
+                combined[in] = combine(SERIES, combined[in], combined[out], capacity[in]);
+                alive[out] = false;
+                replacedBy[out] = in;
+            }
+            contracted = true;
+        }
+        return contracted;
+    }
+
+    /**
+     * Builds the edge lists of the live edges grouped by their start node.
+     *
+     * @return int[] Returns the offsets of the list of each node.
+     */
+    private int[] outLists() {
+        int[] offsets = new int[noOfNodes + 1];
+        for (int edge = 0; edge < from.length; edge++) {
+            if (alive[edge]) {
+                offsets[from[edge] + 1]++;
+            }
+        }
+        for (int u = 0; u < noOfNodes; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        return offsets;
+    }
+
+    /**
+     * Sorts the live edges by one of their end nodes with a counting sort.
+     *
+     * @param offsets The offsets of the list of each node.
+     * @param node    The end node of each edge to sort by.
+     * @return int[] Returns the live edges grouped by the given end node.
+     */
+    private int[] sortedBy(int[] offsets, int[] node) {
+        int[] next = Arrays.copyOf(offsets, noOfNodes);
+        int[] edges = new int[offsets[noOfNodes]];
+        for (int edge = 0; edge < from.length; edge++) {
+            if (alive[edge]) {
+                edges[next[node[edge]]++] = edge;
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Finds the live edge of a node in an edge list built before some edges were
+     * merged. A merged edge is followed to the edge it was merged into.
+     *
+     * @param edges The edge list.
+     * @param first The first position of the list of the node.
+     * @param end   The position following the list of the node.
+     * @param node  The end node of each edge the list is grouped by.
+     * @param v     The node whose edge is requested.
+     * @return int Returns the live edge of the node.
+     */
+    private int liveEdge(int[] edges, int first, int end, int[] node, int v) {
+        for (int i = first; i < end; i++) {
+            int edge = edges[i];
+            while (!alive[edge] && replacedBy[edge] >= 0) {
+                edge = replacedBy[edge];
+            }
+            if (alive[edge] && node[edge] == v) {
+                return edge;
+            }
+        }
+        throw new IllegalStateException("Node " + v + " has no live edge");
+    }
+
+    /**
+     * Removes an edge that was merged into another edge joining the same nodes.
+     *
+     * @param edge The edge removed.
+     * @param into The edge it was merged into.
+     */
+    private void remove(int edge, int into) {
+        alive[edge] = false;
+        replacedBy[edge] = into;
+        outDegree[from[edge]]--;
+        inDegree[to[edge]]--;
+    }
+
+    /**
+     * Adds a combined edge.
+     *
+     * @param type     SERIES or PARALLEL.
+     * @param first    The first part of the edge.
+     * @param second   The second part of the edge.
+     * @param capacity The capacity of the combined edge.
+     * @return int Returns the new combined edge.
+     */
+    private int combine(byte type, int first, int second, int capacity) {
+        kind[noOfCombined] = type;
+        left[noOfCombined] = first;
+        right[noOfCombined] = second;
+        combinedCapacity[noOfCombined] = capacity;
+        return noOfCombined++;
+    }
+
+    /**
+     * Numbers the nodes left and builds the reduced graph from the live edges.
+     */
+    private void build() {
+        int[] index = new int[noOfNodes];
+        Arrays.fill(index, -1);
+        int noOfReducedNodes = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            if (u == source || u == sink || inDegree[u] > 0 || outDegree[u] > 0) {
+                index[u] = noOfReducedNodes++;
+            }
+        }
+        int noOfReducedEdges = 0;
+        for (int edge = 0; edge < from.length; edge++) {
+            if (alive[edge]) {
+                noOfReducedEdges++;
+            }
+        }
+        int[] edgeFrom = new int[noOfReducedEdges];
+        int[] edgeTo = new int[noOfReducedEdges];
+        int[] edgeCapacity = new int[noOfReducedEdges];
+        int[] edgeCombined = new int[noOfReducedEdges];
+        int reduced = 0;
+        for (int edge = 0; edge < from.length; edge++) {
+            if (alive[edge]) {
+                edgeFrom[reduced] = index[from[edge]];
+                edgeTo[reduced] = index[to[edge]];
+                edgeCapacity[reduced] = capacity[edge];
+                edgeCombined[reduced] = combined[edge];
+                reduced++;
+            }
+        }
+        reducedGraph = new ArrayResidualGraph(noOfReducedNodes, noOfReducedEdges, edgeFrom,
+                edgeTo, edgeCapacity);
+        reducedSource = index[source];
+        reducedSink = index[sink];
+
+        // The forward arcs of a node keep the order of its edges
+        arcCombined = new int[reducedGraph.getNoOfArcs()];
+        int[] next = new int[noOfReducedNodes];
+        for (int u = 0; u < noOfReducedNodes; u++) {
+            next[u] = reducedGraph.firstArc(u);
+        }
+        for (int edge = 0; edge < noOfReducedEdges; edge++) {
+            arcCombined[next[edgeFrom[edge]]++] = edgeCombined[edge];
+        }
+    }
+
+    /**
+     * Copies the flow found on the reduced graph onto the edges of the given graph. The
+     * flow of a chain is sent along every edge of the chain, and the flow of merged
+     * parallel edges fills the edges one after the other. All other edges carry no flow.
+     */
+    public void expandFlow() {
+        graph.reset();
+        int[] stack = new int[2 * noOfCombined + 1];
+        int[] amounts = new int[2 * noOfCombined + 1];
+        for (int u = 0; u < reducedGraph.getNoOfNodes(); u++) {
+            for (int arc = reducedGraph.firstArc(u); arc < reducedGraph.forwardEnd(u); arc++) {
+                int flow = reducedGraph.flow(arc);
+                if (flow <= 0) {
+                    continue;
+                }
+                int size = 0;
+                stack[size] = arcCombined[arc];
+                amounts[size++] = flow;
+                while (size > 0) {
+                    int edge = stack[--size];
+                    int amount = amounts[size];
+                    if (kind[edge] == ORIGINAL) {
+                        graph.push(left[edge], amount);
+                    } else if (kind[edge] == SERIES) {
+                        stack[size] = left[edge];
+                        amounts[size++] = amount;
+                        stack[size] = right[edge];
+                        amounts[size++] = amount;
+                    } else {
+                        int first = Math.min(amount, combinedCapacity[left[edge]]);
+                        stack[size] = left[edge];
+                        amounts[size++] = first;
+                        if (amount > first) {
+                            stack[size] = right[edge];
+                            amounts[size++] = amount - first;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ResidualGraph Returns the reduced graph.
+     */
+    public ResidualGraph getReducedGraph() {
+        return reducedGraph;
+    }
+
+    /**
+     * @return int Returns the source node in the reduced graph.
+     */
+    public int getSource() {
+        return reducedSource;
+    }
+
+    /**
+     * @return int Returns the sink node in the reduced graph.
+     */
+    public int getSink() {
+        return reducedSink;
+    }
+
+}
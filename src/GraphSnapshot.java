@@ -0,0 +1,288 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This GraphSnapshot class saves a loaded flow network in a compact binary format and
+ * maps it back into memory without parsing. All the values are little-endian ints:
+ *
+ *   header    : magic, version, flags, nodes, arcs, source, sink, node offset
+ *   offsets   : nodes + 1 ints (first arc of each node, then the number of arcs)
+ *   forwards  : nodes ints (end of the forward arcs of each node)
+ *   targets   : arcs ints
+ *   reverses  : arcs ints
+ *   capacities: arcs ints
+ *   residuals : arcs ints (only if the flow was saved)
+ *
+ * The structure is mapped read-only with a FileChannel and used by the solvers in
+ * place. The capacities (changed by setCapacity) and the residual capacities (changed
+ * by the solvers) are bulk copied into buffers outside the heap, so the graph can be
+ * changed like any other without writing to the file.
+ *
+ * The structure is checked once when it is mapped, so a damaged or hand-made file is
+ * reported as an IOException instead of failing somewhere inside a solver.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphSnapshot {
+    private static final int MAGIC = 0x534E464D; // "MFNS" in little-endian order
+    private static final int VERSION = 1;
+    private static final int HAS_FLOW = 1; // Flag set when the residual capacities are saved
+    private static final int HEADER_INTS = 8;
+    // A single mapping cannot be larger than 2 GB
+    private static final long MAX_SECTION_BYTES = Integer.MAX_VALUE;
+
+    /**
+     * Saves a flow network as a snapshot.
+     *
+     * @param path        The path of the snapshot file.
+     * @param problem     The network with its source and sink.
+     * @param includeFlow True if the current flow of the network should be saved.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, FlowProblem problem, boolean includeFlow)
+            throws IOException {
+        ResidualGraph graph = problem.graph;
+        int noOfNodes = graph.getNoOfNodes();
+        int noOfArcs = graph.getNoOfArcs();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            IntWriter writer = new IntWriter(channel);
+            writer.put(MAGIC);
+            writer.put(VERSION);
+            writer.put(includeFlow ? HAS_FLOW : 0);
+            writer.put(noOfNodes);
+            writer.put(noOfArcs);
+            writer.put(problem.source);
+            writer.put(problem.sink);
+            writer.put(problem.nodeOffset);
+
+            for (int u = 0; u < noOfNodes; u++) {
+                writer.put(graph.firstArc(u));
+            }
+            writer.put(noOfArcs);
+            for (int u = 0; u < noOfNodes; u++) {
+                writer.put(graph.forwardEnd(u));
+            }
+            for (int arc = 0; arc < noOfArcs; arc++) {
+                writer.put(graph.target(arc));
+            }
+            for (int arc = 0; arc < noOfArcs; arc++) {
+                writer.put(graph.reverse(arc));
+            }
+            for (int arc = 0; arc < noOfArcs; arc++) {
+                writer.put(graph.capacity(arc));
+            }
+            if (includeFlow) {
+                for (int arc = 0; arc < noOfArcs; arc++) {
+                    writer.put(graph.residual(arc));
+                }
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Maps a snapshot into memory. The graph returned reads the file in place, except
+     * for the capacities and the residual capacities, which are copied (the residual
+     * capacities start with the saved flow, or no flow).
+     *
+     * @param path The path of the snapshot file.
+     * @return FlowProblem Returns the network with its source and sink.
+     * @throws IOException If the file cannot be read or is not a snapshot.
+     */
+    public static FlowProblem map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            IntBuffer header = mapInts(channel, 0, HEADER_INTS);
+            if (header.get(0) != MAGIC) {
+                throw new IOException(path + " is not a graph snapshot");
+            }
+            if (header.get(1) != VERSION) {
+                throw new IOException(path + " has unsupported snapshot version " +
+                        header.get(1));
+            }
+            boolean hasFlow = (header.get(2) & HAS_FLOW) != 0;
+            int noOfNodes = header.get(3);
+            int noOfArcs = header.get(4);
+
+            long position = HEADER_INTS * 4L;
+            IntBuffer offsets = mapInts(channel, position, noOfNodes + 1);
+            position += (noOfNodes + 1) * 4L;
+            IntBuffer forwardEnds = mapInts(channel, position, noOfNodes);
+            position += noOfNodes * 4L;
+            IntBuffer targets = mapInts(channel, position, noOfArcs);
+            position += noOfArcs * 4L;
+            IntBuffer reverses = mapInts(channel, position, noOfArcs);
+            position += noOfArcs * 4L;
+            IntBuffer savedCapacities = mapInts(channel, position, noOfArcs);
+            position += noOfArcs * 4L;
+            IntBuffer savedResiduals = hasFlow ? mapInts(channel, position, noOfArcs) :
+                    savedCapacities;
+            int source = header.get(5);
+            int sink = header.get(6);
+            String error = validate(noOfNodes, noOfArcs, offsets, forwardEnds, targets,
+                    reverses, savedCapacities, source, sink);
+            if (error != null) {
+                throw new IOException(path + " is not a valid snapshot: " + error);
+            }
+
+            // The capacities and residual capacities can be changed, so they get their
+            // own copy
+            IntBuffer capacities = copyInts(savedCapacities, noOfArcs);
+            IntBuffer residuals = copyInts(savedResiduals, noOfArcs);
+            ResidualGraph graph = new BufferResidualGraph(noOfNodes, offsets, forwardEnds,
+                    targets, reverses, capacities, residuals);
+            return new FlowProblem(graph, source, sink, header.get(7));
+        }
+    }
+
+    /**
+     * Checks that the mapped sections form a valid CSR graph: the arcs of every node
+     * follow those of the node before it, the forward arcs of each node lie within its
+     * arcs, every arc points to a node and is paired with an arc pointing back to its
+     * own node, and the source and sink are nodes of the graph.
+     *
+     * @param noOfNodes   The number of nodes.
+     * @param noOfArcs    The number of arcs.
+     * @param offsets     The first arc of each node, followed by the number of arcs.
+     * @param forwardEnds The arc following the last forward arc of each node.
+     * @param targets     The node each arc points to.
+     * @param reverses    The paired arc of each arc.
+     * @param capacities  The capacity of each arc.
+     * @param source      The source node.
+     * @param sink        The sink node.
+     * @return String Returns a description of the first problem found, or null if the
+     * graph is valid.
+     */
+    private static String validate(int noOfNodes, int noOfArcs, IntBuffer offsets,
+                                   IntBuffer forwardEnds, IntBuffer targets,
+                                   IntBuffer reverses, IntBuffer capacities, int source,
+                                   int sink) {
+        if (source < 0 || source >= noOfNodes || sink < 0 || sink >= noOfNodes) {
+            return "the source " + source + " or sink " + sink + " is not a node";
+        }
+        if (offsets.get(0) != 0 || offsets.get(noOfNodes) != noOfArcs) {
+            return "the arcs of the nodes do not cover the " + noOfArcs + " arcs";
+        }
+        for (int u = 0; u < noOfNodes; u++) {
+            int first = offsets.get(u);
+            int end = offsets.get(u + 1);
+            int forwardEnd = forwardEnds.get(u);
+            if (end < first) {
+                return "the arcs of node " + u + " end before they start";
+            }
+            if (forwardEnd < first || forwardEnd > end) {
+                return "the forward arcs of node " + u + " are outside of its arcs";
+            }
+            for (int arc = first; arc < end; arc++) {
+                int v = targets.get(arc);
+                int reverse = reverses.get(arc);
+                if (v < 0 || v >= noOfNodes) {
+                    return "arc " + arc + " points to " + v + ", which is not a node";
+                }
+                if (reverse < 0 || reverse >= noOfArcs || reverses.get(reverse) != arc ||
+                        targets.get(reverse) != u) {
+                    return "arc " + arc + " is not paired with an arc back to node " + u;
+                }
+                if (capacities.get(arc) < 0) {
+                    return "arc " + arc + " has a negative capacity";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies a section of ints into a buffer outside the heap.
+     *
+     * @param section The mapped section.
+     * @param length  The number of ints in the section.
+     * @return IntBuffer Returns the copy, in the native order.
+     * @throws IOException If the copy would be too large for a single buffer.
+     */
+    private static IntBuffer copyInts(IntBuffer section, int length) throws IOException {
+        long bytes = length * 4L;
+        if (bytes > MAX_SECTION_BYTES) {
+            throw new IOException("Snapshot section of " + length + " ints is too large");
+        }
+        IntBuffer copy = ByteBuffer.allocateDirect((int) bytes)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        copy.put(section.duplicate());
+        copy.clear();
+        return copy;
+    }
+
+    /**
+     * Checks whether a file starts with the magic number of a snapshot.
+     *
+     * @param path The path of the file.
+     * @return boolean Returns true if the file is a snapshot.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) > 0) {
+                // Keep reading until the four bytes are in
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Maps a section of little-endian ints of the file read-only.
+     *
+     * @param channel  The snapshot file.
+     * @param position The position of the section in bytes.
+     * @param length   The number of ints in the section.
+     * @return IntBuffer Returns a view of the section.
+     * @throws IOException If the section is too large or past the end of the file.
+     */
+    private static IntBuffer mapInts(FileChannel channel, long position, int length)
+            throws IOException {
+        long bytes = length * 4L;
+        if (length < 0 || bytes > MAX_SECTION_BYTES) {
+            throw new IOException("Snapshot section of " + length + " ints is too large");
+        }
+        if (position + bytes > channel.size()) {
+            throw new IOException("The snapshot file is truncated");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, bytes)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * This IntWriter class buffers little-endian ints and writes them to a channel.
+     */
+    private static class IntWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        IntWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void put(int value) throws IOException {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+}
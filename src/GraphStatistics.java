@@ -0,0 +1,131 @@
+import java.util.Arrays;
+
+/**
+ * This GraphStatistics class holds cheap structural statistics of a flow network, which
+ * AdaptiveSolver uses to choose the algorithm that should be fastest on it. They are
+ * all found in a single breadth first pass over the arcs, in time linear in the size of
+ * the graph:
+ * - the number of nodes and edges, and the density (edges over the V(V - 1) possible),
+ * - the smallest and largest capacity, and whether every capacity is 1,
+ * - the grid-likeness, the share of nodes other than the source and sink that have 2 to
+ *   4 neighbours other than the source and sink, as in a 4-connected grid,
+ * - whether the graph is bipartite when its edges are taken as undirected.
+ *
+ * Loops, such as the arcs of a GridGraph leading out of the grid, are not edges between
+ * two nodes and are left out of all of them.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphStatistics {
+    public final int noOfNodes; // The number of nodes
+    public final int noOfEdges; // The number of edges
+    public final double density; // The number of edges over the number of ordered pairs
+    public final int minCapacity; // The smallest capacity of an edge (0 if there are none)
+    public final int maxCapacity; // The largest capacity of an edge (0 if there are none)
+    public final boolean unitCapacity; // True if every edge has a capacity of 1
+    public final double gridLikeness; // The share of inner nodes with 2 to 4 neighbours
+    public final boolean bipartite; // True if the undirected graph has no odd cycle
+
+    /**
+     * This is the constructor of GraphStatistics class.
+     *
+     * @param noOfNodes    The number of nodes.
+     * @param noOfEdges    The number of edges.
+     * @param minCapacity  The smallest capacity of an edge.
+     * @param maxCapacity  The largest capacity of an edge.
+     * @param gridLikeness The share of inner nodes with 2 to 4 neighbours.
+     * @param bipartite    True if the undirected graph has no odd cycle.
+     */
+    public GraphStatistics(int noOfNodes, int noOfEdges, int minCapacity, int maxCapacity,
+                           double gridLikeness, boolean bipartite) {
+        this.noOfNodes = noOfNodes;
+        this.noOfEdges = noOfEdges;
+        this.density = noOfNodes > 1 ?
+                noOfEdges / ((double) noOfNodes * (noOfNodes - 1)) : 0;
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+        this.unitCapacity = noOfEdges > 0 && minCapacity == 1 && maxCapacity == 1;
+        this.gridLikeness = gridLikeness;
+        this.bipartite = bipartite;
+    }
+
+    /**
+     * Finds the statistics of a graph.
+     *
+     * @param graph  The flow graph in CSR form.
+     * @param source The source node of the graph.
+     * @param sink   The sink node of the graph.
+     * @return GraphStatistics Returns the statistics of the graph.
+     */
+    public static GraphStatistics of(ResidualGraph graph, int source, int sink) {
+        int noOfNodes = graph.getNoOfNodes();
+        int noOfEdges = 0;
+        int minCapacity = Integer.MAX_VALUE;
+        int maxCapacity = 0;
+        int gridNodes = 0; // The inner nodes with 2 to 4 neighbours
+        boolean bipartite = true;
+
+        // Colour the nodes 1 and 2 in breadth first order, one component after the
+        // other, and count the distinct inner neighbours of each node on the way
+        byte[] colour = new byte[noOfNodes];
+        int[] queue = new int[noOfNodes];
+        int[] seenFrom = new int[noOfNodes]; // The last node that counted each neighbour
+        Arrays.fill(seenFrom, -1);
+        for (int start = 0; start < noOfNodes; start++) {
+            if (colour[start] != 0) {
+                continue;
+            }
+            colour[start] = 1;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int u = queue[head++];
+                int neighbours = 0;
+                for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                    int v = graph.target(arc);
+                    if (v == u) {
+                        continue;
+                    }
+                    if (arc < graph.forwardEnd(u)) {
+                        int c = graph.capacity(arc);
+                        minCapacity = Math.min(minCapacity, c);
+                        maxCapacity = Math.max(maxCapacity, c);
+                        noOfEdges++;
+                    }
+                    if (v != source && v != sink && seenFrom[v] != u) {
+                        seenFrom[v] = u;
+                        neighbours++;
+                    }
+                    if (colour[v] == 0) {
+                        colour[v] = (byte) (3 - colour[u]);
+                        queue[tail++] = v;
+                    } else if (colour[v] == colour[u]) {
+                        bipartite = false;
+                    }
+                }
+                if (u != source && u != sink && neighbours >= 2 && neighbours <= 4) {
+                    gridNodes++;
+                }
+            }
+        }
+
+        int innerNodes = noOfNodes - (source == sink ? 1 : 2);
+        return new GraphStatistics(noOfNodes, noOfEdges,
+                noOfEdges > 0 ? minCapacity : 0, maxCapacity,
+                innerNodes > 0 ? (double) gridNodes / innerNodes : 0, bipartite);
+    }
+
+    /**
+     * @return String Returns the statistics in one line, for the log.
+     */
+    @Override
+    public String toString() {
+        return String.format("V=%d E=%d density=%.2e capacities=[%d, %d] unit=%b " +
+                        "grid=%.2f bipartite=%b", noOfNodes, noOfEdges, density, minCapacity,
+                maxCapacity, unitCapacity, gridLikeness, bipartite);
+    }
+
+}
@@ -0,0 +1,263 @@
+/**
+ * This GridGraph class is a residual graph for image-style grids, where every pixel is
+ * joined to its 4 or 8 neighbours and to the source and the sink. The arcs are not
+ * stored: the arcs of a pixel sit at fixed slots, so the target and the paired arc of
+ * every arc are worked out from its number, and only the capacities and residual
+ * capacities are kept in arrays.
+ *
+ * The pixels are numbered row by row, followed by the source and the sink. The arcs of
+ * pixel p start at p * (connectivity + 2):
+ * - One arc to each neighbour, in the order of the direction constants. The edges
+ *   between two neighbours are paired with each other, so both directions are forward
+ *   arcs with a capacity of their own. Directions leading out of the grid are loops
+ *   back to the pixel without capacity.
+ * - The forward arc to the sink.
+ * - The reverse arc of the edge from the source.
+ * The source and the sink hold one arc for every pixel after the arcs of the pixels.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GridGraph extends ResidualGraph {
+    // The directions of the neighbours (the last four only for 8-connected grids)
+    public static final int RIGHT = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int UP = 3;
+    public static final int DOWN_RIGHT = 4;
+    public static final int DOWN_LEFT = 5;
+    public static final int UP_LEFT = 6;
+    public static final int UP_RIGHT = 7;
+
+    private static final int[] DX = {1, 0, -1, 0, 1, -1, -1, 1};
+    private static final int[] DY = {0, 1, 0, -1, 1, 1, -1, -1};
+
+    private final int width; // The number of pixels in a row
+    private final int height; // The number of rows
+    private final int connectivity; // The number of neighbours of a pixel (4 or 8)
+    private final int slots; // The number of arcs of a pixel
+    private final int noOfPixels; // The number of pixels
+    private final int sourceArcs; // The first arc of the source
+    private final int sinkArcs; // The first arc of the sink
+    private final int[] neighbourOffset; // Added to a pixel to reach each neighbour
+    private final int[] capacities; // Capacity of each arc (0 for the reverse arcs)
+    private final int[] residuals; // Remaining capacity of each arc
+
+    /**
+     * This is the constructor of GridGraph class. All capacities start at zero.
+     *
+     * @param width        The number of pixels in a row.
+     * @param height       The number of rows.
+     * @param connectivity The number of neighbours of a pixel, 4 or 8.
+     */
+    public GridGraph(int width, int height, int connectivity) {
+        if (connectivity != 4 && connectivity != 8) {
+            throw new IllegalArgumentException("The connectivity must be 4 or 8");
+        }
+        if (width < 1 || height < 1 ||
+                (long) width * height * (connectivity + 4) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The grid must have between 1 and " +
+                    Integer.MAX_VALUE / (connectivity + 4) + " pixels");
+        }
+        this.width = width;
+        this.height = height;
+        this.connectivity = connectivity;
+        slots = connectivity + 2;
+        noOfPixels = width * height;
+        sourceArcs = noOfPixels * slots;
+        sinkArcs = sourceArcs + noOfPixels;
+        neighbourOffset = new int[connectivity];
+        for (int direction = 0; direction < connectivity; direction++) {
+            neighbourOffset[direction] = DY[direction] * width + DX[direction];
+        }
+        capacities = new int[sinkArcs + noOfPixels];
+        residuals = new int[sinkArcs + noOfPixels];
+    }
+
+    /**
+     * @param x The column of the pixel.
+     * @param y The row of the pixel.
+     * @return int Returns the node of the pixel.
+     */
+    public int node(int x, int y) {
+        return y * width + x;
+    }
+
+    /**
+     * @return int Returns the source node of the grid.
+     */
+    public int getSource() {
+        return noOfPixels;
+    }
+
+    /**
+     * @return int Returns the sink node of the grid.
+     */
+    public int getSink() {
+        return noOfPixels + 1;
+    }
+
+    /**
+     * Sets the capacities of the edges joining a pixel to the source and the sink, and
+     * removes the flow of both edges.
+     *
+     * @param x              The column of the pixel.
+     * @param y              The row of the pixel.
+     * @param sourceCapacity The capacity of the edge from the source to the pixel.
+     * @param sinkCapacity   The capacity of the edge from the pixel to the sink.
+     */
+    public void setTerminalCapacities(int x, int y, int sourceCapacity, int sinkCapacity) {
+        int pixel = node(x, y);
+        int sourceArc = sourceArcs + pixel;
+        int sinkArc = pixel * slots + connectivity;
+        capacities[sourceArc] = sourceCapacity;
+        residuals[sourceArc] = sourceCapacity;
+        residuals[reverse(sourceArc)] = 0;
+        capacities[sinkArc] = sinkCapacity;
+        residuals[sinkArc] = sinkCapacity;
+        residuals[reverse(sinkArc)] = 0;
+    }
+
+    /**
+     * Sets the capacity of the edge from a pixel to one of its neighbours, and removes
+     * the flow between the two pixels.
+     *
+     * @param x         The column of the pixel.
+     * @param y         The row of the pixel.
+     * @param direction The direction of the neighbour.
+     * @param capacity  The capacity of the edge.
+     */
+    public void setNeighbourCapacity(int x, int y, int direction, int capacity) {
+        if (neighbour(x, y, direction) < 0) {
+            throw new IllegalArgumentException("Pixel " + x + ", " + y +
+                    " has no neighbour in direction " + direction);
+        }
+        int arc = node(x, y) * slots + direction;
+        int reverse = reverse(arc);
+        capacities[arc] = capacity;
+        residuals[arc] = capacity;
+        residuals[reverse] = capacities[reverse];
+    }
+
+    /**
+     * @param x         The column of the pixel.
+     * @param y         The row of the pixel.
+     * @param direction The direction of the neighbour.
+     * @return int Returns the node of the neighbour, or -1 if it is outside the grid.
+     */
+    public int neighbour(int x, int y, int direction) {
+        if (direction < 0 || direction >= connectivity) {
+            return -1;
+        }
+        return neighbour(node(x, y), direction);
+    }
+
+    /**
+     * @param pixel     A pixel.
+     * @param direction The direction of the neighbour.
+     * @return int Returns the neighbour of the pixel, or -1 if it is outside the grid.
+     */
+    private int neighbour(int pixel, int direction) {
+        int x = pixel % width + DX[direction];
+        int y = pixel / width + DY[direction];
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        return pixel + neighbourOffset[direction];
+    }
+
+    @Override
+    public void reset() {
+        System.arraycopy(capacities, 0, residuals, 0, residuals.length);
+    }
+
+    @Override
+    public int getNoOfNodes() {
+        return noOfPixels + 2;
+    }
+
+    @Override
+    public int getNoOfArcs() {
+        return capacities.length;
+    }
+
+    @Override
+    public int firstArc(int node) {
+        if (node < noOfPixels) {
+            return node * slots;
+        }
+        return node == noOfPixels ? sourceArcs : sinkArcs;
+    }
+
+    @Override
+    public int forwardEnd(int node) {
+        if (node < noOfPixels) {
+            return node * slots + connectivity + 1;
+        }
+        return sinkArcs; // All arcs of the source are forward arcs, none of the sink
+    }
+
+    @Override
+    public int endArc(int node) {
+        if (node < noOfPixels) {
+            return node * slots + slots;
+        }
+        return node == noOfPixels ? sinkArcs : sinkArcs + noOfPixels;
+    }
+
+    @Override
+    public int target(int arc) {
+        if (arc >= sourceArcs) {
+            return arc < sinkArcs ? arc - sourceArcs : arc - sinkArcs;
+        }
+        int pixel = arc / slots;
+        int slot = arc - pixel * slots;
+        if (slot < connectivity) {
+            int neighbour = neighbour(pixel, slot);
+            return neighbour < 0 ? pixel : neighbour;
+        }
+        return slot == connectivity ? noOfPixels + 1 : noOfPixels;
+    }
+
+    @Override
+    public int reverse(int arc) {
+        if (arc >= sourceArcs) {
+            int pixel = arc < sinkArcs ? arc - sourceArcs : arc - sinkArcs;
+            return pixel * slots + (arc < sinkArcs ? connectivity + 1 : connectivity);
+        }
+        int pixel = arc / slots;
+        int slot = arc - pixel * slots;
+        if (slot < connectivity) {
+            int neighbour = neighbour(pixel, slot);
+            if (neighbour < 0) {
+                return arc; // A loop out of the grid is its own pair
+            }
+            // The opposite direction: right and left, down and up, and the diagonals
+            int opposite = slot < 4 ? (slot + 2) & 3 : 4 + ((slot - 2) & 3);
+            return neighbour * slots + opposite;
+        }
+        return slot == connectivity ? sinkArcs + pixel : sourceArcs + pixel;
+    }
+
+    @Override
+    public int capacity(int arc) {
+        return capacities[arc];
+    }
+
+    @Override
+    public int residual(int arc) {
+        return residuals[arc];
+    }
+
+    @Override
+    protected void setResidual(int arc, int residual) {
+        residuals[arc] = residual;
+    }
+
+    @Override
+    protected void setArcCapacity(int arc, int capacity) {
+        capacities[arc] = capacity;
+    }
+
+}
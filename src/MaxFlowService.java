@@ -0,0 +1,177 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * This MaxFlowService class answers maximum flow queries between any two nodes of one
+ * graph from several threads at once.
+ *
+ * The graph is copied once when the service is created and never changed afterwards,
+ * so every query sees the same capacities. A query borrows a workspace from a pool: a
+ * residual graph sharing the arcs and capacities of the copy with residual capacities
+ * of its own, and a solver with its own scratch arrays. Workspaces are created when no
+ * free one is left and handed back when the query ends, so there are never more of
+ * them than queries running at the same time. Closing the service closes the solvers
+ * of the workspaces that are AutoCloseable, such as ParallelPushRelabelSolver, once
+ * their queries have ended.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class MaxFlowService implements AutoCloseable {
+    private final ArrayResidualGraph graph; // The shared graph, never changed
+    private final Supplier<MaxFlowSolver> solverFactory; // Creates the solver of a workspace
+    private final ConcurrentLinkedQueue<Workspace> workspaces; // The free workspaces
+    private final ExecutorService pool; // The threads running the queries
+    private volatile boolean closed; // True once the service has been closed
+
+    /**
+     * This Workspace class holds the state one query changes while it runs.
+     */
+    private static class Workspace {
+        private final ResidualGraph graph; // The residual capacities of the query
+        private final MaxFlowSolver solver; // The solver and its scratch arrays
+
+        Workspace(ResidualGraph graph, MaxFlowSolver solver) {
+            this.graph = graph;
+            this.solver = solver;
+        }
+    }
+
+    /**
+     * This is the constructor of MaxFlowService class. One query thread is used for
+     * every available processor.
+     *
+     * @param graph         The graph the queries are answered on.
+     * @param solverFactory Creates a new solver for each workspace.
+     */
+    public MaxFlowService(ResidualGraph graph, Supplier<MaxFlowSolver> solverFactory) {
+        this(graph, solverFactory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * This is the constructor of MaxFlowService class.
+     *
+     * @param graph         The graph the queries are answered on.
+     * @param solverFactory Creates a new solver for each workspace.
+     * @param noOfThreads   The number of queries that may run at the same time.
+     */
+    public MaxFlowService(ResidualGraph graph, Supplier<MaxFlowSolver> solverFactory,
+                          int noOfThreads) {
+        if (noOfThreads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.graph = new ArrayResidualGraph(graph);
+        this.solverFactory = solverFactory;
+        workspaces = new ConcurrentLinkedQueue<>();
+        pool = Executors.newFixedThreadPool(noOfThreads, runnable -> {
+            Thread thread = new Thread(runnable, "max-flow-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a query for the maximum possible flow from the source to the sink.
+     *
+     * @param source The source node of the query.
+     * @param sink   The sink node of the query.
+     * @return CompletableFuture Returns the maximum flow once the query has run.
+     */
+    public CompletableFuture<Integer> maxFlow(int source, int sink) {
+        checkNode(source);
+        checkNode(sink);
+        if (source == sink) {
+            throw new IllegalArgumentException("The source and the sink must be different");
+        }
+        return CompletableFuture.supplyAsync(() -> solve(source, sink), pool);
+    }
+
+    /**
+     * Answers a query on the calling thread with a workspace from the pool.
+     *
+     * @param source The source node of the query.
+     * @param sink   The sink node of the query.
+     * @return int Returns the maximum possible flow from the source to the sink.
+     */
+    public int solve(int source, int sink) {
+        Workspace workspace = workspaces.poll();
+        if (workspace == null) {
+            workspace = new Workspace(graph.newWorkspace(), solverFactory.get());
+        }
+        try {
+            return SolverMetrics.solve(workspace.solver, workspace.graph, source, sink);
+        } finally {
+            workspaces.offer(workspace);
+            // A query that ends after the service was closed closes its own workspace
+            if (closed) {
+                closeWorkspaces();
+            }
+        }
+    }
+
+    /**
+     * @return int Returns the number of nodes of the graph.
+     */
+    public int getNoOfNodes() {
+        return graph.getNoOfNodes();
+    }
+
+    /**
+     * Stops the query threads and closes the solvers of the free workspaces. Queries
+     * already started are still answered, and their workspaces are closed when they
+     * end.
+     *
+     * @throws IllegalStateException If a solver cannot be closed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pool.shutdown();
+        closeWorkspaces();
+    }
+
+    /**
+     * Takes every free workspace out of the pool and closes its solver if it is
+     * AutoCloseable. Every solver is closed even if one of them fails.
+     *
+     * @throws IllegalStateException If a solver cannot be closed.
+     */
+    private void closeWorkspaces() {
+        IllegalStateException failure = null;
+        Workspace workspace;
+        while ((workspace = workspaces.poll()) != null) {
+            if (!(workspace.solver instanceof AutoCloseable)) {
+                continue;
+            }
+            try {
+                ((AutoCloseable) workspace.solver).close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = new IllegalStateException("A workspace solver could not be " +
+                            "closed", e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Checks that a node belongs to the graph.
+     *
+     * @param node The node to check.
+     */
+    private void checkNode(int node) {
+        if (node < 0 || node >= graph.getNoOfNodes()) {
+            throw new IllegalArgumentException("Node " + node + " is not in the graph");
+        }
+    }
+
+}
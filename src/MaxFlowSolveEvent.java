@@ -0,0 +1,54 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This MaxFlowSolveEvent class is the Java Flight Recorder event written for every
+ * solve while the solver metrics are on. The counts are the work done by all threads
+ * during the solve, so they are exact as long as one solve runs at a time.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+@Name("maxflow.Solve")
+@Label("Max Flow Solve")
+@Category("Max Flow")
+@Description("A maximum flow calculation")
+public class MaxFlowSolveEvent extends Event {
+    @Label("Algorithm")
+    String algorithm; // The name of the solver that did the work
+
+    @Label("Nodes")
+    int noOfNodes; // The number of nodes of the graph
+
+    @Label("Edges")
+    int noOfEdges; // The number of edges of the graph
+
+    @Label("Source")
+    int source; // The source node of the solve
+
+    @Label("Sink")
+    int sink; // The sink node of the solve
+
+    @Label("Maximum Flow")
+    int maximumFlow; // The maximum flow found
+
+    @Label("Searches")
+    long searches; // The number of augmenting path searches
+
+    @Label("Augmenting Paths")
+    long augmentingPaths; // The number of augmenting paths found
+
+    @Label("Arcs Scanned")
+    long arcsScanned; // The number of arcs looked at by the searches
+
+    @Label("Pushes")
+    long pushes; // The number of pushes of the push-relabel solvers
+
+    @Label("Relabels")
+    long relabels; // The number of relabels of the push-relabel solvers
+
+}
@@ -0,0 +1,32 @@
+/**
+ * This MaxFlowSolver interface is implemented by every algorithm that can find the
+ * maximum possible flow of a residual graph. The flow found is left in the residual
+ * graph, so the flow of each edge can be read from it afterwards.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public interface MaxFlowSolver {
+
+    /**
+     * Calculates the maximum possible flow of the given graph from source to the sink.
+     * Any flow already in the graph is removed first.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    int maxFlow(ResidualGraph graph, int source, int sink);
+
+    /**
+     * @return String Returns the name of the algorithm. A solver that hands the graph
+     * to another solver returns the name of that solver, so the metrics name the
+     * algorithm that did the work.
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+}
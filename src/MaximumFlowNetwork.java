@@ -1,6 +1,3 @@
-import java.util.LinkedList;
-import java.util.Queue;
-
 /**
  * This MaximumFlowNetwork class implements Ford Fulkerson and Breadth First Search
  * algorithms to find the maximum possible flow graph of a given graph
@@ -13,15 +10,16 @@ import java.util.Queue;
  * @version 1.0
  * @since 2020-03-05
  */
-public class MaximumFlowNetwork {
-    private int[] parent; // Holds parent of a node when a path is found (filled by BFS)
-    private Queue<Integer> queue; // Queue of nodes to explore (BFS to FIFO queue)
+public class MaximumFlowNetwork implements MaxFlowSolver {
+    private AugmentingPathSearch search; // Finds the augmenting paths (filled by BFS)
+    private FlowVerifier verifier; // Checks the flow found and finds the minimum cut
     private int noOfNodes; // The number of nodes of the given array
-    private boolean[] visited; // Keeps track of the nodes that has been visited
+    private int source; // The source node of the last solve
+    private int sink; // The sink node of the last solve
 
-    // residualGraph[i][j] tells you if there's an edge between vertex i & j.
-    // 0 = no edge, positive number = capacity of that edge
-    public int[][] residualGraph;
+    // residualGraph holds every edge as a forward arc and a paired reverse arc.
+    // The residual capacity of an arc tells how much more flow it can carry.
+    public ResidualGraph residualGraph;
 
     /**
      * This is the constructor of MaximumFlowNetwork class.
@@ -30,48 +28,22 @@ public class MaximumFlowNetwork {
      */
     public MaximumFlowNetwork(int noOfNodes) {
         this.noOfNodes = noOfNodes;
-        this.queue = new LinkedList<>();
-        parent = new int[noOfNodes];
-        visited = new boolean[noOfNodes];
-        residualGraph = new int[noOfNodes][noOfNodes];
+        search = new AugmentingPathSearch(noOfNodes);
+        verifier = new FlowVerifier();
     }
 
     /**
-     * Searches whether there exists an augmenting path from the source to the sink
-     * and the set of vertices that exists in this path are stored in parent[].
+     * Searches whether there exists an augmenting path from the source to the sink.
+     * The arcs that exists in this path are kept by the search kernel, which stops as
+     * soon as the sink has been reached.
      *
      * @param source The source node of the given graph.
      * @param sink   The sink node of the given graph.
-     * @param graph  The empty matrix of the given graph.
+     * @param graph  The residual graph to search.
      * @return boolean Returns true if an augmenting path exists.
      */
-    public boolean bfs(int source, int sink, int[][] graph) {
-        // Mark all nodes as not visited
-        for (int vertex = 1; vertex < noOfNodes; vertex++) {
-            visited[vertex] = false;
-        }
-
-        // Add the source node and marks it visited
-        queue.add(source);
-        visited[source] = true;
-        parent[source] = -1; // Source has no parent
-
-        // Standard Breadth First Search (BFS) loop
-        while (!queue.isEmpty()) {
-            // Return and remove the vertex from the front of the queue
-            int element = queue.remove();
-
-            // Visit all the adjacent nodes
-            for (int destination = 0; destination < noOfNodes; destination++) {
-                // Check if the u-v edge capacity > 0 and if a node is not already visited
-                if (graph[element][destination] > 0 && !visited[destination]) {
-                    parent[destination] = element;
-                    queue.add(destination);
-                    visited[destination] = true;
-                }
-            }
-        }
-        return (visited[sink]); // Return true if the sink node has been reached
+    public boolean bfs(int source, int sink, ResidualGraph graph) {
+        return search.search(graph, source, sink, 1);
     }
 
     /**
@@ -84,119 +56,212 @@ public class MaximumFlowNetwork {
      * @return int Returns the maximum possible flow of the given graph.
      */
     public int fordFulkerson(int[][] graph, int source, int sink) {
-        int u, v;
-        int maximumFlow = 0; // Initialize the maximum possible flow to zero 
+        // Initialize residual graph to be same as the original graph
+        return fordFulkerson(ResidualGraph.fromMatrix(graph), source, sink);
+    }
 
+    /**
+     * Runs the algorithm on a graph that is already in CSR form and calculates the
+     * maximum possible flow from source to the sink. Any flow already in the graph
+     * is removed first.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    public int fordFulkerson(ResidualGraph graph, int source, int sink) {
         // Initialize residual graph to be same as the original graph
-        for (u = 0; u < noOfNodes; u++) {
-            for (v = 0; v < noOfNodes; v++) {
-                residualGraph[u][v] = graph[u][v];
-            }
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        residualGraph = graph;
+        residualGraph.reset();
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.INIT, System.nanoTime() - startTime);
         }
+        this.source = source;
+        this.sink = sink;
 
         // Augment the flow while there is path from source to sink
-        while (bfs(source, sink, residualGraph)) {
-
-            // Find bottleneck (minimum) by looping over path from BFS using parent[]
-            // array, so initially set it to the largest number possible.
-            int pathFlow = Integer.MAX_VALUE;
-
-            // Find the maximum flow through the path found
-            // Loop backward through the path using parent[] array
-            for (v = sink; v != source; v = parent[v]) {
-                u = parent[v]; // Holds the previous node in the path
-                // Minimum out of previous bottleneck & the capacity of the new edge
-                pathFlow = Math.min(pathFlow, residualGraph[u][v]);
-            }
+        return augment(source, sink, Integer.MAX_VALUE);
+    }
 
-            // Update the residual graph capacities & reverse edges along the path
-            for (v = sink; v != source; v = parent[v]) {
-                u = parent[v];
-                residualGraph[u][v] -= pathFlow; // Back edge
-                residualGraph[v][u] += pathFlow; // Forward edge
-            }
-            // Add path flow to overall maximum flow
-            maximumFlow += pathFlow;
+    /**
+     * Sends flow along shortest augmenting paths from one node to another until no
+     * path is left or the given amount has been sent.
+     *
+     * @param from  The node the flow is sent from.
+     * @param to    The node the flow is sent to.
+     * @param limit The largest amount of flow to send.
+     * @return int Returns the amount of flow sent.
+     */
+    private int augment(int from, int to, int limit) {
+        int totalFlow = 0; // Initialize the flow sent to zero
+
+        // Augment the flow while there is path from source to sink
+        while (totalFlow < limit && bfs(from, to, residualGraph)) {
+            // Send the bottleneck of the path, but no more than still has to be sent
+            totalFlow += search.augmentPath(residualGraph, from, to, limit - totalFlow);
         }
-        // Return the overall maximum flow
+        return totalFlow;
+    }
+
+    /**
+     * Runs Edmonds-Karp (Ford Fulkerson with Breadth First Search) on the given graph.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        return fordFulkerson(graph, source, sink);
+    }
+
+    /**
+     * Calculates the maximum possible flow of the given graph with the chosen solver.
+     * The flow found is kept in the residual graph of this network, so it can be
+     * printed and validated the same way as the result of fordFulkerson.
+     *
+     * @param graph  The given flow graph graph.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @param solver The algorithm used to find the maximum flow.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    public int maxFlow(int[][] graph, int source, int sink, MaxFlowSolver solver) {
+        return maxFlow(ResidualGraph.fromMatrix(graph), source, sink, solver);
+    }
+
+    /**
+     * Calculates the maximum possible flow of a graph already in CSR form with the
+     * chosen solver, and keeps the graph as the residual graph of this network.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @param solver The algorithm used to find the maximum flow.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    public int maxFlow(ResidualGraph graph, int source, int sink, MaxFlowSolver solver) {
+        int maximumFlow = SolverMetrics.solve(solver, graph, source, sink);
+        // The solver may have used this network on another graph (a reduced one)
+        residualGraph = graph;
+        this.source = source;
+        this.sink = sink;
         return maximumFlow;
     }
 
     /**
-     * This method validates the residual graph generated.
+     * Changes the capacity of an edge and updates the maximum flow from the flow found
+     * by the last solve, instead of solving the graph again from zero flow. An edge
+     * that does not exist yet is added, and a capacity of zero deletes the edge.
      *
-     * @param sourceNode The source node of the given graph.
-     * @param sinkNode   The sink node of the given graph.
-     * @param matrix     The matrix of the given graph with the edges.
-     * @return boolean Returns true if the generated residual graph is valid.
+     * A larger capacity or a new edge only needs new augmenting paths. If the edge
+     * carries more flow than its new capacity, the extra flow is taken off the edge,
+     * sent around it where possible, otherwise cancelled back to the source and the
+     * sink, and then the flow is augmented again.
+     *
+     * The CSR graph has no room for extra arcs, so adding a new edge copies the graph
+     * with the edge added, in O(V + E) time. Changing or deleting an existing edge does
+     * not copy it.
+     *
+     * @param from     The start node of the edge.
+     * @param to       The end node of the edge.
+     * @param capacity The new capacity of the edge.
+     * @return int Returns the maximum possible flow of the changed graph.
+     * @throws IllegalStateException If no graph has been solved yet.
      */
-    public boolean validateEdges(int sourceNode, int sinkNode, int[][] matrix) {
-        int noOfCols = matrix[0].length; // Number of columns of the graph
-        int sumFromSource = 0;
-        int sumToSink = 0;
-        boolean valid = true; // Returns true if the given graph is valid
-
-        for (int i = 0; i < noOfCols; i++) {
-            sumFromSource += matrix[sourceNode][i]; // Sum of the edges from the source
+    public int changeCapacity(int from, int to, int capacity) {
+        if (residualGraph == null) {
+            throw new IllegalStateException("A graph must be solved before its edges " +
+                    "can be changed");
         }
-        for (int[] row : matrix) {
-            sumToSink += row[sinkNode]; // Sum of the edges to the sink
-        }
-
-        // If the sum of the edges from the source and to the sink are equal,
-        // then check if the edges from and to the other nodes are equal
-        if (sumFromSource == sumToSink) {
-            // Iterating through the number of nodes
-            for (int node = 0; node < noOfCols; node++) {
-                int sumFromNode = 0;
-                int sumToNode = 0;
-
-                // If the node is source or sink,
-                // then don't check if the edges to and from the node is equal
-                if (node != sourceNode && node != sinkNode) {
-                    for (int i = 0; i < noOfCols; i++) {
-                        sumFromNode += matrix[node][i];
-                    }
-                    for (int[] row : matrix) {
-                        sumToNode += row[node];
-                    }
-
-                    // If the edges from and to a given node is not equal,
-                    // then the graph is not valid
-                    if (!(sumFromNode == sumToNode)) {
-                        valid = false;
-                    }
+        if (from != to) {
+            int arc = residualGraph.findEdge(from, to);
+            if (arc < 0) {
+                residualGraph = residualGraph.withEdge(from, to, capacity);
+            } else {
+                int removed = residualGraph.setCapacity(arc, capacity);
+                if (removed > 0 && !rebalance(from, to, removed)) {
+                    // Should never happen, but a full solve is always correct
+                    return fordFulkerson(residualGraph, source, sink);
                 }
             }
-        } else {
-            valid = false;
+            augment(source, sink, Integer.MAX_VALUE);
         }
-        return valid; // Returns true if the given graph is valid
+        return residualGraph.netFlow(source);
     }
 
     /**
-     * This method converts the flow network into residual graph and prints the nodes
-     * and their respective capacities of the flow network.
+     * Deletes an edge and updates the maximum flow from the flow found by the last
+     * solve.
      *
-     * @param graph The flow network of the user given graph.
-     * @return int[][] Returns the residual graph of the user given graph.
+     * @param from The start node of the edge.
+     * @param to   The end node of the edge.
+     * @return int Returns the maximum possible flow of the changed graph.
      */
-    public int[][] printResidual(int[][] graph) {
-        // Initialize a graph to hold the converted residual graph
-        int[][] finalResidual = new int[noOfNodes][noOfNodes];
-
-        // Iterating through the rows and columns of the flow network
-        for (int u = 0; u < noOfNodes; u++) {
-            for (int v = 0; v < noOfNodes; v++) {
-                if (graph[u][v] > residualGraph[u][v]) {
-                    // Capacities of the residual graph is the difference between the
-                    // capacities of the user given graph and the flow network
-                    finalResidual[u][v] = graph[u][v] - residualGraph[u][v];
-                } else
-                    finalResidual[u][v] = 0;
-            }
+    public int deleteEdge(int from, int to) {
+        return changeCapacity(from, to, 0);
+    }
+
+    /**
+     * Restores the flow conservation after flow was taken off the edge from-to. The
+     * start node of the edge is left with extra flow and the end node is short of the
+     * same amount. The flow is first sent around the edge, then the extra flow is sent
+     * on to the sink or back to the source, and the missing flow is taken from the
+     * source or from the sink.
+     *
+     * @param from    The start node of the edge.
+     * @param to      The end node of the edge.
+     * @param removed The flow taken off the edge.
+     * @return boolean Returns true if the flow is conserved at both nodes again.
+     */
+    private boolean rebalance(int from, int to, int removed) {
+        int rerouted = augment(from, to, removed);
+        int excess = removed - rerouted; // Extra flow left at the start node
+        int deficit = removed - rerouted; // Flow missing at the end node
+
+        if (from != source && from != sink) {
+            excess -= augment(from, sink, excess);
+            excess -= augment(from, source, excess);
+        } else {
+            excess = 0;
+        }
+        if (to != source && to != sink) {
+            deficit -= augment(source, to, deficit);
+            deficit -= augment(sink, to, deficit);
+        } else {
+            deficit = 0;
         }
-        return finalResidual;
+        return excess == 0 && deficit == 0;
+    }
+
+    /**
+     * This method validates the flow held in the residual graph. The flow is checked
+     * against the capacities, flow conservation and the capacity of the minimum cut,
+     * in time linear to the number of edges.
+     *
+     * @param sourceNode The source node of the given graph.
+     * @param sinkNode   The sink node of the given graph.
+     * @return boolean Returns true if the generated residual graph is valid.
+     */
+    public boolean validateEdges(int sourceNode, int sinkNode) {
+        return verify(sourceNode, sinkNode, residualGraph.netFlow(sourceNode)) == null;
+    }
+
+    /**
+     * This method checks that the flow held in the residual graph is a maximum flow
+     * with the given value.
+     *
+     * @param sourceNode  The source node of the given graph.
+     * @param sinkNode    The sink node of the given graph.
+     * @param maximumFlow The maximum flow found by the solver.
+     * @return String Returns a description of the first violation, or null if the flow
+     * is a valid maximum flow.
+     */
+    public String verify(int sourceNode, int sinkNode, int maximumFlow) {
+        return verifier.verify(residualGraph, sourceNode, sinkNode, maximumFlow);
     }
 
 }
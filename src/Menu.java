@@ -1,6 +1,9 @@
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Paths;
 import java.util.InputMismatchException;
 import java.util.Scanner;
 
@@ -15,6 +18,14 @@ import java.util.Scanner;
 public class Menu {
     // Declare and initialize Scanner object to receive keyboard inputs from the user
     public Scanner scanner = new Scanner(System.in);
+    // The algorithm used to find the maximum flow
+    // (1 = Edmonds-Karp, 2 = Dinic, 3 = Push-relabel, 4 = Parallel push-relabel,
+    // 5 = Capacity scaling, 6 = Boykov-Kolmogorov, 7 = Chosen from the graph)
+    public int algorithm = 1;
+    // The network of the last solve, kept so edits can be re-solved incrementally
+    public MaximumFlowNetwork network;
+    // The parallel push-relabel solver, kept so its worker threads are only started once
+    private ParallelPushRelabelSolver parallelSolver;
 
     /**
      * This method is used to validate integer input.
@@ -109,6 +120,67 @@ public class Menu {
         return matrix;
     }
 
+    /**
+     * This method asks the user which algorithm should be used to find the maximum
+     * possible flow.
+     */
+    public void selectAlgorithm() {
+        boolean menuOption = true;
+        while (menuOption) {
+            System.out.println("\nPlease select the algorithm to find the maximum flow: ");
+            System.out.println("1 - Edmonds-Karp.\n2 - Dinic.\n3 - Push-relabel.\n" +
+                    "4 - Parallel push-relabel.\n5 - Capacity scaling.\n" +
+                    "6 - Boykov-Kolmogorov.\n7 - Automatic (chosen from the graph).");
+            int option = userInputInt(0);
+            if (option >= 1 && option <= 7) {
+                algorithm = option;
+                menuOption = false;
+            } else {
+                System.out.println("Please enter a valid option number.");
+            }
+        }
+    }
+
+    /**
+     * This method creates the solver of the algorithm selected by the user.
+     *
+     * @param network The network that runs Edmonds-Karp.
+     * @return MaxFlowSolver Returns the solver of the selected algorithm.
+     */
+    public MaxFlowSolver createAlgorithm(MaximumFlowNetwork network) {
+        switch (algorithm) {
+            case 2:
+                return new DinicSolver();
+            case 3:
+                return new PushRelabelSolver();
+            case 4:
+                if (parallelSolver == null) {
+                    parallelSolver = new ParallelPushRelabelSolver();
+                }
+                return parallelSolver;
+            case 5:
+                return new CapacityScalingSolver();
+            case 6:
+                return new BoykovKolmogorovSolver();
+            case 7:
+                return new AdaptiveSolver();
+            default:
+                return network;
+        }
+    }
+
+    /**
+     * This method creates the solver of the algorithm selected by the user. The graph
+     * is reduced before the algorithm runs on it, and the nodes of the reduced graph
+     * are reordered if the system property maxflow.reorder names an order.
+     *
+     * @param network The network that runs Edmonds-Karp.
+     * @return ReducingSolver Returns the solver of the selected algorithm.
+     */
+    public ReducingSolver createSolver(MaximumFlowNetwork network) {
+        return new ReducingSolver(ReorderingSolver.fromProperty(createAlgorithm(network)));
+    }
+
     /**
      * This method makes use of the MaximumFlowNetwork class to find the maximum possible
      * flow of the given graph. The time taken to find the maximum flow is calculated.
@@ -122,31 +194,158 @@ public class Menu {
         long startTime = System.nanoTime() / 1000; // Start recording time in milliseconds
 
         // Declare and initialize MaximumFlowNetwork object
-        MaximumFlowNetwork network = new MaximumFlowNetwork(noOfNodes);
+        network = new MaximumFlowNetwork(noOfNodes);
         // Calculate the maximum possible flow of the given graph
-        int maximumFlow = network.fordFulkerson(matrix, sourceNode, sinkNode);
+        int maximumFlow = network.maxFlow(matrix, sourceNode, sinkNode,
+                createSolver(network));
+        printMaxFlow(sourceNode, sinkNode, maximumFlow, startTime);
+    }
+
+    /**
+     * This method changes the capacity of an edge and updates the maximum possible
+     * flow from the flow found before, instead of solving the graph again. The time
+     * taken to update the maximum flow is calculated.
+     *
+     * @param sourceNode The source node of the given graph.
+     * @param sinkNode   The sink node of the given graph.
+     * @param from       The start node of the edge.
+     * @param to         The end node of the edge.
+     * @param capacity   The new capacity of the edge (0 deletes the edge).
+     */
+    public void updateMaxFlow(int sourceNode, int sinkNode, int from, int to, int capacity) {
+        long startTime = System.nanoTime() / 1000; // Start recording time in milliseconds
+
+        // Re-solve from the flow kept in the network
+        int maximumFlow = network.changeCapacity(from, to, capacity);
+        printMaxFlow(sourceNode, sinkNode, maximumFlow, startTime);
+    }
+
+    /**
+     * This method prints the maximum possible flow, the time taken to find it and the
+     * flow of each edge of the network.
+     *
+     * @param sourceNode  The source node of the given graph.
+     * @param sinkNode    The sink node of the given graph.
+     * @param maximumFlow The maximum possible flow of the given graph.
+     * @param startTime   The time the calculation started in microseconds.
+     */
+    public void printMaxFlow(int sourceNode, int sinkNode, int maximumFlow, long startTime) {
         System.out.println("\nThe maximum possible flow from source node " + sourceNode +
                 " to sink node " + sinkNode + ": " + maximumFlow);
         // Print the time elapsed to calculate the maximum possible flow of a given graph
         System.out.println("Elapsed time: " + ((System.nanoTime() / 1000) - startTime) + " microseconds");
+        printMetrics();
 
-        // Print the residual graph of the user given graph
-        int[][] residualMatrix = network.printResidual(matrix);
-        boolean valid = network.validateEdges(sourceNode, sinkNode, residualMatrix);
-        System.out.println("The graph shown below adheres to all the restrictions: " +
-                valid);
+        String violation = network.verify(sourceNode, sinkNode, maximumFlow);
+        System.out.println("The flow shown below adheres to all the restrictions: " +
+                (violation == null));
+        if (violation != null) {
+            System.out.println(violation);
+        }
 
-        // Print the edges and their respective capacities of the residual graph
-        System.out.println("\nYour network flow matrix: ");
-        printMatrix(residualMatrix);
-        System.out.println();
-        for (int u = 0; u < noOfNodes; u++) {
-            for (int v = 0; v < noOfNodes; v++) {
-                int capacity = residualMatrix[u][v];
-                if (capacity > 0) {
-                    System.out.println(u + " - " + v + ": " + capacity);
-                }
+        // Print the edges that carry flow and the minimum cut
+        printFlows(new FlowProblem(network.residualGraph, sourceNode, sinkNode, 0),
+                maximumFlow);
+    }
+
+    /**
+     * This method prints the edges that carry flow and the edges of the minimum cut as
+     * an edge list, streamed from the residual graph. If the system property
+     * maxflow.output names a file, they are saved to it instead, in the format chosen
+     * from its name (".flow" for DIMACS, ".bin" for binary, an edge list otherwise).
+     *
+     * @param problem     The network holding the flow, with its source and sink.
+     * @param maximumFlow The maximum possible flow of the network.
+     */
+    public void printFlows(FlowProblem problem, int maximumFlow) {
+        String output = System.getProperty("maxflow.output");
+        try {
+            if (output != null) {
+                FlowResultWriter.write(Paths.get(output), problem, maximumFlow);
+                System.out.println("\nFlow saved to " + output);
+            } else {
+                System.out.println();
+                FlowResultWriter.write(Channels.newChannel(System.out),
+                        FlowResultWriter.Format.EDGE_LIST, problem, maximumFlow);
+                System.out.flush();
             }
+        } catch (IOException e) {
+            System.err.println("Error : " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method prints the solver metrics collected since they were last printed,
+     * if they are switched on with -Dmaxflow.metrics=true.
+     */
+    public void printMetrics() {
+        if (SolverMetrics.ENABLED) {
+            System.out.println("\nSolver metrics:");
+            System.out.print(SolverMetrics.report());
+            SolverMetrics.reset();
+        }
+    }
+
+    /**
+     * This method loads a DIMACS or edge-list file, finds the maximum possible flow
+     * from the source to the sink named in the file and prints the flow of each edge.
+     * The graph and its flow can be saved as a binary snapshot, which loads much faster
+     * the next time. The system property maxflow.offHeap keeps the graph outside of the
+     * heap, in direct memory ("direct") or in the mapped file it names.
+     *
+     * @param path         The path of the graph file.
+     * @param snapshotPath The path to save the snapshot to, or null.
+     * @throws IOException If the file cannot be read or is not in a known format.
+     */
+    public void solveFile(String path, String snapshotPath) throws IOException {
+        // Graphs larger than the heap are kept in direct memory or in a mapped file
+        String storage = System.getProperty("maxflow.offHeap");
+        OffHeapGraphBuilder offHeap = null;
+        if (storage != null) {
+            offHeap = new OffHeapGraphBuilder("direct".equals(storage) ? null :
+                    Paths.get(storage));
+        }
+
+        long startTime = System.nanoTime() / 1000; // Start recording time in milliseconds
+        FlowProblem problem = GraphLoader.load(Paths.get(path), offHeap);
+        ResidualGraph graph = problem.graph;
+        System.out.println("Loaded " + graph.getNoOfNodes() + " nodes and " +
+                graph.getNoOfEdges() + " edges in " +
+                ((System.nanoTime() / 1000) - startTime) + " microseconds");
+
+        startTime = System.nanoTime() / 1000;
+        network = new MaximumFlowNetwork(graph.getNoOfNodes());
+        int maximumFlow;
+        if (offHeap == null) {
+            ReducingSolver solver = createSolver(network);
+            maximumFlow = network.maxFlow(graph, problem.source, problem.sink, solver);
+            ResidualGraph reduced = solver.getReducedGraph();
+            System.out.println("Reduced to " + reduced.getNoOfNodes() + " nodes and " +
+                    reduced.getNoOfEdges() + " edges");
+        } else {
+            // The reduction is built on the heap, so off-heap graphs are solved as they are
+            maximumFlow = network.maxFlow(graph, problem.source, problem.sink,
+                    createAlgorithm(network));
+        }
+        int offset = problem.nodeOffset;
+        System.out.println("\nThe maximum possible flow from source node " +
+                (problem.source + offset) + " to sink node " + (problem.sink + offset) +
+                ": " + maximumFlow);
+        System.out.println("Elapsed time: " + ((System.nanoTime() / 1000) - startTime) + " microseconds");
+        printMetrics();
+        String violation = network.verify(problem.source, problem.sink, maximumFlow);
+        System.out.println("The flow adheres to all the restrictions: " +
+                (violation == null));
+        if (violation != null) {
+            System.out.println(violation);
+        }
+
+        // Print the edges that carry flow and the minimum cut
+        printFlows(problem, maximumFlow);
+
+        if (snapshotPath != null) {
+            GraphSnapshot.write(Paths.get(snapshotPath), problem, true);
+            System.out.println("\nSnapshot saved to " + snapshotPath);
         }
     }
 
@@ -156,16 +355,19 @@ public class Menu {
      * @param matrix The matrix to be printed.
      */
     public void printMatrix(int[][] matrix) {
+        // Build the whole matrix first, so it is printed with a single call
+        StringBuilder text = new StringBuilder();
         // Looping through all the rows of the matrix
         for (int[] row : matrix) {
             // Looping through all the columns of the current row
             for (int col : row) {
-                // Print each element of the row
-                System.out.print(col + " ");
+                // Add each element of the row
+                text.append(col).append(' ');
             }
             // Start a new row
-            System.out.println();
+            text.append(System.lineSeparator());
         }
+        System.out.print(text);
     }
 
     /**
@@ -176,16 +378,51 @@ public class Menu {
         System.exit(0);
     }
 
+    /**
+     * This method reads the number of an algorithm given on the command line, accepting
+     * the same options as selectAlgorithm.
+     *
+     * @param option The number of the algorithm.
+     * @return int Returns the number of the algorithm.
+     * @throws IllegalArgumentException If the option is not the number of an algorithm.
+     */
+    private static int parseAlgorithm(String option) {
+        try {
+            int algorithm = Integer.parseInt(option);
+            if (algorithm >= 1 && algorithm <= 7) {
+                return algorithm;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below like a number out of range
+        }
+        throw new IllegalArgumentException("Please enter a valid option number.");
+    }
+
     /**
      * This is the main method is used to display menu and makes use of all the
-     * methods and classes of this project.
+     * methods and classes of this project. When a graph file is given, the graph is
+     * solved without any prompts.
      *
-     * @param args Unused.
+     * @param args The path of a DIMACS, edge-list or snapshot graph file, the number of
+     *             the algorithm to use and the path to save a snapshot to (all optional).
      */
     public static void main(String[] args) {
         // Declare and initialize Menu object
         Menu menu = new Menu();
 
+        if (args.length > 0) {
+            try {
+                if (args.length > 1) {
+                    menu.algorithm = parseAlgorithm(args[1]);
+                }
+                menu.solveFile(args[0], args.length > 2 ? args[2] : null);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error : " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
         // Print program instructions
         System.out.println("Welcome!!!");
         System.out.print("Please enter the number of nodes: (Including the source and " +
@@ -224,6 +461,9 @@ public class Menu {
             }
         }
 
+        // Select the algorithm used to find the maximum flow
+        menu.selectAlgorithm();
+
         // Print the graph entered by the user
         System.out.println("\nYour network flow matrix: ");
         menu.printMatrix(matrix);
@@ -253,7 +493,7 @@ public class Menu {
                         matrix[from][to] = capacity;
                         System.out.println("\nYour network flow matrix: ");
                         menu.printMatrix(matrix);
-                        menu.findMaxFlow(sourceNode, sinkNode, matrix, noOfNodes);
+                        menu.updateMaxFlow(sourceNode, sinkNode, from, to, capacity);
                     } else {
                         System.out.println("The edge you entered already exists!");
                     }
@@ -271,7 +511,7 @@ public class Menu {
                         matrix[from][to] = 0;
                         System.out.println("\nYour network flow matrix: ");
                         menu.printMatrix(matrix);
-                        menu.findMaxFlow(sourceNode, sinkNode, matrix, noOfNodes);
+                        menu.updateMaxFlow(sourceNode, sinkNode, from, to, 0);
 
                     } else {
                         System.out.println("The edge you entered does not exist!");
@@ -293,7 +533,7 @@ public class Menu {
                         matrix[from][to] = capacity;
                         System.out.println("\nYour network flow matrix: ");
                         menu.printMatrix(matrix);
-                        menu.findMaxFlow(sourceNode, sinkNode, matrix, noOfNodes);
+                        menu.updateMaxFlow(sourceNode, sinkNode, from, to, capacity);
                     } else {
                         System.out.println("The edge you entered does not exist!");
                     }
@@ -0,0 +1,256 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This OffHeapGraphBuilder class builds a BufferResidualGraph whose CSR arrays are kept
+ * outside of the heap, so a graph can be larger than the heap and does not add to the
+ * work of the garbage collector. The edges are added one at a time and are staged
+ * outside of the heap as well, in chunks, so no array as large as the graph is ever
+ * created on the heap.
+ *
+ * The arrays are kept either in direct memory or in a file mapped into memory:
+ * - Direct memory is limited by -XX:MaxDirectMemorySize, which is the size of the heap
+ *   unless it is set.
+ * - A mapped file is only limited by the disk, and the operating system keeps the
+ *   parts of it in use in memory. Graphs larger than the heap should use a file.
+ *
+ * Every array must fit in 2 GB, so a graph holds at most 268435455 edges. The edges
+ * are staged until build() is called. The arrays only needed while building are kept
+ * with the staged edges, never in the file of the graph, and the staging file is
+ * deleted when the graph is built or the builder is closed, whether the build
+ * succeeded or not.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class OffHeapGraphBuilder implements AutoCloseable {
+    private static final int CHUNK_SHIFT = 20; // 2^20 edges are staged in each chunk
+    private static final int CHUNK_EDGES = 1 << CHUNK_SHIFT;
+    private static final long MAX_EDGES = Integer.MAX_VALUE / 8; // Arcs of 4 bytes, 2 per edge
+
+    private final Path file; // The file the graph is mapped from (null for direct memory)
+    private final List<IntBuffer> chunks = new ArrayList<>(); // From, to, capacity of each edge
+    private long noOfEdges; // The number of edges added so far
+    private Path stagingFile; // The temporary file the edges are staged in
+    private FileChannel stagingChannel; // The open staging file
+    private long stagingSize; // The end of the sections of the staging file mapped so far
+    private FileChannel channel; // The file being filled
+    private long position; // The end of the sections of the file mapped so far
+
+    /**
+     * This is the constructor of OffHeapGraphBuilder class. The graph is kept in direct
+     * memory.
+     */
+    public OffHeapGraphBuilder() {
+        this(null);
+    }
+
+    /**
+     * This is the constructor of OffHeapGraphBuilder class. The graph is kept in a file
+     * mapped into memory. The file is overwritten, and the edges are staged in a
+     * temporary file next to it.
+     *
+     * @param file The file to keep the graph in, or null for direct memory.
+     */
+    public OffHeapGraphBuilder(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Adds an edge to the graph.
+     *
+     * @param from     The start node of the edge.
+     * @param to       The end node of the edge.
+     * @param capacity The capacity of the edge.
+     * @throws IOException If the staging file cannot be written.
+     */
+    public void addEdge(int from, int to, int capacity) throws IOException {
+        if (noOfEdges == MAX_EDGES) {
+            throw new IOException("A graph can have at most " + MAX_EDGES + " edges");
+        }
+        int chunk = (int) (noOfEdges >>> CHUNK_SHIFT);
+        if (chunk == chunks.size()) {
+            chunks.add(allocateStaging(3 * CHUNK_EDGES));
+        }
+        int index = 3 * (int) (noOfEdges & (CHUNK_EDGES - 1));
+        IntBuffer edges = chunks.get(chunk);
+        edges.put(index, from);
+        edges.put(index + 1, to);
+        edges.put(index + 2, capacity);
+        noOfEdges++;
+    }
+
+    /**
+     * @return long Returns the number of edges added so far.
+     */
+    public long getNoOfEdges() {
+        return noOfEdges;
+    }
+
+    /**
+     * Builds the CSR arrays from the edges added, the same way as ArrayResidualGraph:
+     * the arcs are counted for every node and then placed with a counting sort.
+     *
+     * @param noOfNodes The number of nodes of the graph.
+     * @return BufferResidualGraph Returns the graph without flow.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public BufferResidualGraph build(int noOfNodes) throws IOException {
+        if ((noOfNodes + 1) * 4L > Integer.MAX_VALUE) {
+            throw new IOException("A graph can have at most " + (Integer.MAX_VALUE / 4 - 1) +
+                    " nodes");
+        }
+        int noOfArcs = (int) (2 * noOfEdges);
+        if (file != null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            position = 0;
+        }
+        try {
+            IntBuffer offsets = allocate(noOfNodes + 1);
+            IntBuffer forwardEnds = allocate(noOfNodes);
+            IntBuffer targets = allocate(noOfArcs);
+            IntBuffer reverses = allocate(noOfArcs);
+            IntBuffer capacities = allocate(noOfArcs);
+            IntBuffer residuals = allocate(noOfArcs);
+            // Next free forward and reverse slot of each node, only needed while building
+            IntBuffer nextForward = allocateStaging(noOfNodes);
+            IntBuffer nextReverse = allocateStaging(noOfNodes);
+
+            // Count the forward (outgoing) and reverse (incoming) arcs of every node
+            for (long edge = 0; edge < noOfEdges; edge++) {
+                IntBuffer edges = chunks.get((int) (edge >>> CHUNK_SHIFT));
+                int index = 3 * (int) (edge & (CHUNK_EDGES - 1));
+                int u = edges.get(index);
+                int v = edges.get(index + 1);
+                nextForward.put(u, nextForward.get(u) + 1);
+                nextReverse.put(v, nextReverse.get(v) + 1);
+            }
+            offsets.put(0, 0);
+            for (int u = 0; u < noOfNodes; u++) {
+                int outDegree = nextForward.get(u);
+                int inDegree = nextReverse.get(u);
+                int first = offsets.get(u);
+                offsets.put(u + 1, first + outDegree + inDegree);
+                forwardEnds.put(u, first + outDegree);
+                nextForward.put(u, first);
+                nextReverse.put(u, first + outDegree);
+            }
+
+            // Place each edge as a forward arc and its paired reverse arc
+            for (long edge = 0; edge < noOfEdges; edge++) {
+                IntBuffer edges = chunks.get((int) (edge >>> CHUNK_SHIFT));
+                int index = 3 * (int) (edge & (CHUNK_EDGES - 1));
+                int u = edges.get(index);
+                int v = edges.get(index + 1);
+                int forward = nextForward.get(u);
+                int reverse = nextReverse.get(v);
+                nextForward.put(u, forward + 1);
+                nextReverse.put(v, reverse + 1);
+                targets.put(forward, v);
+                targets.put(reverse, u);
+                reverses.put(forward, reverse);
+                reverses.put(reverse, forward);
+                capacities.put(forward, edges.get(index + 2));
+            }
+            chunks.clear();
+
+            BufferResidualGraph graph = new BufferResidualGraph(noOfNodes, offsets,
+                    forwardEnds, targets, reverses, capacities, residuals);
+            graph.reset();
+            return graph;
+        } finally {
+            // The sections stay mapped after the file is closed
+            try {
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+            } finally {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Drops the staged edges and deletes the staging file. The builder calls this
+     * itself at the end of build(), and GraphLoader calls it when a file fails to load,
+     * so no staging file is left behind.
+     *
+     * @throws IOException If the staging file cannot be closed or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        chunks.clear();
+        stagingSize = 0;
+        try {
+            if (stagingChannel != null) {
+                stagingChannel.close();
+            }
+        } finally {
+            stagingChannel = null;
+            if (stagingFile != null) {
+                Path staged = stagingFile;
+                stagingFile = null;
+                Files.deleteIfExists(staged);
+            }
+        }
+    }
+
+    /**
+     * Allocates a zeroed array of ints in direct memory, or as the next section of the
+     * file.
+     *
+     * @param length The number of ints.
+     * @return IntBuffer Returns the array.
+     * @throws IOException If the section cannot be mapped.
+     */
+    private IntBuffer allocate(int length) throws IOException {
+        if (channel == null) {
+            return ByteBuffer.allocateDirect(length * 4).order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        IntBuffer section = channel.map(FileChannel.MapMode.READ_WRITE, position, length * 4L)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        position += length * 4L;
+        return section;
+    }
+
+    /**
+     * Allocates a zeroed array of ints that is only needed until the graph is built, in
+     * direct memory or as the next section of a temporary file next to the file of the
+     * graph. The temporary file is deleted when the builder is closed.
+     *
+     * @param length The number of ints.
+     * @return IntBuffer Returns the array.
+     * @throws IOException If the temporary file cannot be created or mapped.
+     */
+    private IntBuffer allocateStaging(int length) throws IOException {
+        long bytes = length * 4L;
+        if (file == null) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+        if (stagingChannel == null) {
+            Path directory = file.toAbsolutePath().getParent();
+            stagingFile = Files.createTempFile(directory, "edges", ".tmp");
+            stagingChannel = FileChannel.open(stagingFile, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+        IntBuffer section = stagingChannel.map(FileChannel.MapMode.READ_WRITE, stagingSize,
+                bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+        stagingSize += bytes;
+        return section;
+    }
+
+}
@@ -0,0 +1,420 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This ParallelPushRelabelSolver class implements a lock-free parallel push-relabel
+ * algorithm to find the maximum possible flow of a given graph on several threads.
+ *
+ * The active nodes are discharged in rounds. In each round the worker threads take
+ * active nodes from a shared list and discharge them without locks: the residual
+ * capacities, excesses and labels are atomic arrays, and a node only pushes to its
+ * lowest neighbour, so a stale label read from another thread can never make a push
+ * invalid. A node activated during a round is discharged in the next round, so no
+ * node is ever discharged by two threads at once.
+ *
+ * After a fixed amount of relabel work the labels are recomputed with a global
+ * relabel, a reverse Breadth First Search from the sink whose layers are explored by
+ * all the worker threads together.
+ *
+ * The worker threads are started by the first solve and kept for the lifetime of the
+ * solver, and its arrays are reused by the next solve when they are large enough, so a
+ * solver that answers many queries only pays for them once. The solver must be closed
+ * to stop its threads.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ParallelPushRelabelSolver implements MaxFlowSolver, AutoCloseable {
+    // The amount of relabel work (in arcs scanned) allowed per node and per arc
+    // before the labels are recomputed with a global relabel
+    private static final int GLOBAL_RELABEL_NODE_WORK = 6;
+    // Layers and lists smaller than this are processed by the calling thread alone
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private final int noOfThreads; // The number of worker threads
+    private ExecutorService pool; // The worker threads, started by the first solve
+    // True once the worker threads have been stopped. The solver may be closed by
+    // another thread than the one solving, as BatchRunner does.
+    private volatile boolean closed;
+
+    private ResidualGraph graph; // The graph of the current solve
+    private int noOfNodes; // The number of nodes of the given graph
+    private int source; // The source node of the given graph
+    private int sink; // The sink node of the given graph
+    private AtomicIntegerArray residuals; // Remaining capacity of each arc
+    private AtomicIntegerArray height; // Label of each node
+    private AtomicLongArray excess; // Flow entering minus flow leaving each node
+    private AtomicIntegerArray queued; // 1 if the node is in the list of the next round
+    private int[] active; // Active nodes of the current round
+    private int[] nextActive; // Active nodes of the next round
+    private int[] layer; // Nodes of the current layer of a global relabel search
+    private int[] nextLayer; // Nodes of the next layer of a global relabel search
+    private final AtomicInteger noOfNextActive = new AtomicInteger(); // Size of nextActive
+    private final AtomicInteger relabelWork = new AtomicInteger(); // Relabel work done
+
+    /**
+     * This is the constructor of ParallelPushRelabelSolver class. One worker thread is
+     * used for every available processor.
+     */
+    public ParallelPushRelabelSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * This is the constructor of ParallelPushRelabelSolver class.
+     *
+     * @param noOfThreads The number of worker threads.
+     */
+    public ParallelPushRelabelSolver(int noOfThreads) {
+        if (noOfThreads < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.noOfThreads = noOfThreads;
+    }
+
+    /**
+     * Runs the algorithm and calculates the maximum possible flow of the
+     * given graph from source to the sink.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        startPool();
+        this.graph = graph;
+        this.source = source;
+        this.sink = sink;
+        noOfNodes = graph.getNoOfNodes();
+        graph.reset();
+
+        int noOfArcs = graph.getNoOfArcs();
+        if (residuals == null || residuals.length() < noOfArcs) {
+            residuals = new AtomicIntegerArray(noOfArcs);
+        }
+        for (int arc = 0; arc < noOfArcs; arc++) {
+            residuals.set(arc, graph.residual(arc));
+        }
+        if (height == null || height.length() < noOfNodes) {
+            height = new AtomicIntegerArray(noOfNodes);
+            excess = new AtomicLongArray(noOfNodes);
+            queued = new AtomicIntegerArray(noOfNodes);
+            active = new int[noOfNodes];
+            nextActive = new int[noOfNodes];
+            layer = new int[noOfNodes];
+            nextLayer = new int[noOfNodes];
+        } else {
+            for (int u = 0; u < noOfNodes; u++) {
+                excess.set(u, 0);
+                queued.set(u, 0);
+            }
+        }
+
+        try {
+            solve(startTime);
+        } finally {
+            this.graph = null;
+        }
+
+        // Copy the residual capacity of every arc back into the residual graph. Pushing
+        // the flow of every forward arc instead would count it twice where two forward
+        // arcs are paired with each other (as in a GridGraph).
+        for (int arc = 0; arc < noOfArcs; arc++) {
+            graph.setResidual(arc, residuals.get(arc));
+        }
+        return (int) excess.get(sink);
+    }
+
+    /**
+     * Starts the worker threads on the first solve. It is synchronized with close(),
+     * so a solver closed while a solve starts never starts threads that are not stopped.
+     *
+     * @throws IllegalStateException If the solver has been closed.
+     */
+    private synchronized void startPool() {
+        if (closed) {
+            throw new IllegalStateException("The solver has been closed");
+        }
+        if (pool == null && noOfThreads > 1) {
+            pool = Executors.newFixedThreadPool(noOfThreads, runnable -> {
+                Thread thread = new Thread(runnable, "push-relabel-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Stops the worker threads. Solves already started still finish.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Saturates the arcs leaving the source and discharges the active nodes round by
+     * round until no node is active.
+     *
+     * @param startTime The time the solve started in nanoseconds, for the metrics.
+     */
+    private void solve(long startTime) {
+        for (int arc = graph.firstArc(source); arc < graph.endArc(source); arc++) {
+            int amount = residuals.get(arc);
+            if (amount > 0) {
+                push(arc, graph.target(arc), amount);
+                excess.addAndGet(source, -amount);
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.INIT, System.nanoTime() - startTime);
+        }
+
+        int relabelLimit = GLOBAL_RELABEL_NODE_WORK * noOfNodes + graph.getNoOfArcs();
+        boolean relabelNeeded = true;
+        long dischargeTime = 0; // Time spent discharging, for the metrics
+        while (true) {
+            if (relabelNeeded) {
+                globalRelabel();
+                relabelWork.set(0);
+            }
+
+            // Collect the nodes activated in the previous round (or by the global relabel)
+            int[] swap = active;
+            active = nextActive;
+            nextActive = swap;
+            int noOfActive = noOfNextActive.getAndSet(0);
+            if (noOfActive == 0) {
+                if (SolverMetrics.ENABLED) {
+                    SolverMetrics.addTime(SolverMetrics.Phase.AUGMENT, dischargeTime);
+                }
+                return;
+            }
+
+            long roundTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+            AtomicInteger next = new AtomicInteger();
+            runInParallel(noOfActive, () -> {
+                int index;
+                int work = 0;
+                while ((index = next.getAndIncrement()) < noOfActive) {
+                    int u = active[index];
+                    queued.set(u, 0);
+                    work += discharge(u);
+                }
+                relabelWork.addAndGet(work);
+            });
+            if (SolverMetrics.ENABLED) {
+                dischargeTime += System.nanoTime() - roundTime;
+            }
+            relabelNeeded = relabelWork.get() > relabelLimit;
+        }
+    }
+
+    /**
+     * Discharges a node by pushing its excess to its lowest neighbour, or relabeling it
+     * one above that neighbour, until its excess is gone. Only the thread discharging
+     * the node lowers its excess or the capacity left on its arcs, so the values it
+     * reads are never larger than the real ones.
+     *
+     * @param u The active node to discharge.
+     * @return int Returns the number of arcs scanned while relabeling.
+     */
+    private int discharge(int u) {
+        int work = 0;
+        int pushes = 0; // The number of pushes, for the metrics
+        int relabels = 0; // The number of relabels, for the metrics
+        int first = graph.firstArc(u);
+        int end = graph.endArc(u);
+        long nodeExcess;
+        while ((nodeExcess = excess.get(u)) > 0) {
+            // Find the lowest neighbour reachable through an arc with capacity left
+            int lowestArc = -1;
+            int lowestHeight = Integer.MAX_VALUE;
+            for (int arc = first; arc < end; arc++) {
+                if (residuals.get(arc) > 0) {
+                    int h = height.get(graph.target(arc));
+                    if (h < lowestHeight) {
+                        lowestHeight = h;
+                        lowestArc = arc;
+                    }
+                }
+            }
+            work += end - first;
+            if (lowestArc < 0 || lowestHeight >= 2 * noOfNodes) {
+                height.set(u, 2 * noOfNodes);
+                relabels++;
+                break;
+            }
+
+            if (height.get(u) > lowestHeight) {
+                int amount = (int) Math.min(nodeExcess, residuals.get(lowestArc));
+                excess.addAndGet(u, -amount);
+                push(lowestArc, graph.target(lowestArc), amount);
+                pushes++;
+            } else {
+                height.set(u, lowestHeight + 1);
+                relabels++;
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.add(SolverMetrics.Counter.PUSHES, pushes);
+            SolverMetrics.add(SolverMetrics.Counter.RELABELS, relabels);
+            SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, work);
+        }
+        return work;
+    }
+
+    /**
+     * Sends flow along an arc, adds it to the excess of the end node and puts that
+     * node in the list of the next round if it is not there already.
+     *
+     * @param arc    The arc the flow is sent along.
+     * @param v      The node the arc points to.
+     * @param amount The amount of flow to send.
+     */
+    private void push(int arc, int v, int amount) {
+        residuals.addAndGet(arc, -amount);
+        residuals.addAndGet(graph.reverse(arc), amount);
+        excess.addAndGet(v, amount);
+        if (v != source && v != sink) {
+            activate(v);
+        }
+    }
+
+    /**
+     * Adds a node to the list of the next round unless it is already in it.
+     *
+     * @param v The node to add.
+     */
+    private void activate(int v) {
+        if (queued.compareAndSet(v, 0, 1)) {
+            nextActive[noOfNextActive.getAndIncrement()] = v;
+        }
+    }
+
+    /**
+     * Recomputes the label of every node as its distance to the sink in the residual
+     * graph, and gives the nodes that cannot reach the sink the number of nodes plus
+     * their distance to the source. Every node with excess is put in the list of the
+     * next round.
+     */
+    private void globalRelabel() {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int unlabelled = 2 * noOfNodes;
+        for (int u = 0; u < noOfNodes; u++) {
+            height.set(u, unlabelled);
+        }
+        height.set(source, noOfNodes);
+        height.set(sink, 0);
+        int dequeued = reverseBfs(sink) + reverseBfs(source);
+
+        noOfNextActive.set(0);
+        for (int u = 0; u < noOfNodes; u++) {
+            queued.set(u, 0);
+            if (u != source && u != sink && excess.get(u) > 0 && height.get(u) < unlabelled) {
+                activate(u);
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.add(SolverMetrics.Counter.SEARCHES, 1);
+            SolverMetrics.add(SolverMetrics.Counter.NODES_DEQUEUED, dequeued);
+            SolverMetrics.addTime(SolverMetrics.Phase.SEARCH, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Labels the unlabelled nodes that can reach the given root in the residual graph
+     * with the label of the root plus their distance to it. Each layer of the search is
+     * split between the worker threads, and a node is claimed by the thread that
+     * labels it first.
+     *
+     * @param root The node the search starts from.
+     * @return int Returns the number of nodes explored, the root included.
+     */
+    private int reverseBfs(int root) {
+        int unlabelled = 2 * noOfNodes;
+        int[] layer = this.layer;
+        int[] nextLayer = this.nextLayer;
+        AtomicInteger noOfNextLayer = new AtomicInteger();
+        layer[0] = root;
+        int noOfLayer = 1;
+        int dequeued = 0;
+
+        while (noOfLayer > 0) {
+            int[] current = layer;
+            int size = noOfLayer;
+            int[] found = nextLayer;
+            AtomicInteger next = new AtomicInteger();
+            runInParallel(size, () -> {
+                int index;
+                long arcsScanned = 0;
+                while ((index = next.getAndIncrement()) < size) {
+                    int u = current[index];
+                    int label = height.get(u) + 1;
+                    arcsScanned += graph.endArc(u) - graph.firstArc(u);
+                    for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                        int v = graph.target(arc);
+                        // v can reach u if the arc v-u (the reverse of u-v) has capacity left
+                        if (height.get(v) == unlabelled &&
+                                residuals.get(graph.reverse(arc)) > 0 &&
+                                height.compareAndSet(v, unlabelled, label)) {
+                            found[noOfNextLayer.getAndIncrement()] = v;
+                        }
+                    }
+                }
+                if (SolverMetrics.ENABLED) {
+                    SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, arcsScanned);
+                }
+            });
+            dequeued += size;
+            noOfLayer = noOfNextLayer.getAndSet(0);
+            layer = found;
+            nextLayer = current;
+        }
+        return dequeued;
+    }
+
+    /**
+     * Runs a task on every worker thread and waits for all of them to finish. Small
+     * amounts of work are done by the calling thread alone.
+     *
+     * @param size The number of items the task has to process.
+     * @param task The task that takes items until none are left.
+     */
+    private void runInParallel(int size, Runnable task) {
+        if (pool == null || size < PARALLEL_THRESHOLD) {
+            task.run();
+            return;
+        }
+        List<Callable<Object>> tasks = new ArrayList<>(noOfThreads);
+        for (int i = 0; i < noOfThreads; i++) {
+            tasks.add(Executors.callable(task));
+        }
+        try {
+            for (Future<Object> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("The solver was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A worker thread failed", e.getCause());
+        }
+    }
+
+}
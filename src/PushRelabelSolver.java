@@ -0,0 +1,283 @@
+/**
+ * This PushRelabelSolver class implements the highest-label push-relabel algorithm to
+ * find the maximum possible flow of a given graph. Instead of searching for augmenting
+ * paths it pushes the excess flow of the active node with the highest label towards
+ * the sink, and relabels a node when none of its arcs leads downhill.
+ *
+ * Two heuristics keep the labels close to the real distances to the sink:
+ * - Gap relabeling lifts every node above an empty label, since those nodes can no
+ *   longer reach the sink.
+ * - Global relabeling recomputes all labels with a reverse Breadth First Search from
+ *   the sink (and from the source for the nodes that cannot reach the sink) after a
+ *   fixed amount of relabel work.
+ *
+ * The excess that cannot reach the sink is pushed back to the source, so the residual
+ * graph holds a valid flow when the solver returns.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class PushRelabelSolver implements MaxFlowSolver {
+    // The amount of relabel work (in arcs scanned) allowed per node and per arc
+    // before the labels are recomputed with a global relabel
+    private static final int GLOBAL_RELABEL_NODE_WORK = 6;
+
+    private int noOfNodes; // The number of nodes of the given graph
+    private int[] height; // Label of each node (an estimate of its distance to the sink)
+    private long[] excess; // Flow entering minus flow leaving each node
+    private int[] currentArc; // Next arc to try from each node
+    private int[] bucketHead; // First active node of each label
+    private int[] nextActive; // Next active node with the same label
+    private int[] count; // Number of nodes with each label
+    private int[] queue; // Queue of nodes to explore during a global relabel
+    private int highest; // Highest label that may still hold an active node
+
+    /**
+     * Runs the algorithm and calculates the maximum possible flow of the
+     * given graph from source to the sink.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        noOfNodes = graph.getNoOfNodes();
+        if (height == null || height.length < noOfNodes) {
+            height = new int[noOfNodes];
+            excess = new long[noOfNodes];
+            currentArc = new int[noOfNodes];
+            nextActive = new int[noOfNodes];
+            queue = new int[noOfNodes];
+            bucketHead = new int[2 * noOfNodes + 1];
+            count = new int[2 * noOfNodes + 1];
+        }
+        graph.reset();
+        for (int u = 0; u < noOfNodes; u++) {
+            excess[u] = 0;
+        }
+
+        // Saturate every arc leaving the source
+        for (int arc = graph.firstArc(source); arc < graph.endArc(source); arc++) {
+            int amount = graph.residual(arc);
+            if (amount > 0) {
+                graph.push(arc, amount);
+                excess[graph.target(arc)] += amount;
+                excess[source] -= amount;
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.INIT, System.nanoTime() - startTime);
+        }
+
+        int relabelLimit = GLOBAL_RELABEL_NODE_WORK * noOfNodes + graph.getNoOfArcs();
+        int relabelWork = 0;
+        globalRelabel(graph, source, sink);
+        long dischargeTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        long relabelTime = 0; // Time spent in global relabels since dischargeTime
+
+        // Discharge the active node with the highest label until no node is active
+        while (highest >= 0) {
+            int u = bucketHead[highest];
+            if (u < 0) {
+                highest--;
+                continue;
+            }
+            bucketHead[highest] = nextActive[u];
+
+            relabelWork += discharge(graph, u, source, sink);
+            if (relabelWork > relabelLimit) {
+                relabelWork = 0;
+                relabelTime += globalRelabel(graph, source, sink);
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.addTime(SolverMetrics.Phase.AUGMENT,
+                    System.nanoTime() - dischargeTime - relabelTime);
+        }
+        return (int) excess[sink];
+    }
+
+    /**
+     * Pushes the excess of a node along its admissible arcs (arcs that lead to a node
+     * one label lower) and relabels the node whenever it runs out of admissible arcs.
+     *
+     * @param graph  The residual graph holding the preflow.
+     * @param u      The active node to discharge.
+     * @param source The source node of the given graph.
+     * @param sink   The sink node of the given graph.
+     * @return int Returns the number of arcs scanned while relabeling.
+     */
+    private int discharge(ResidualGraph graph, int u, int source, int sink) {
+        int work = 0;
+        int pushes = 0; // The number of pushes, for the metrics
+        int relabels = 0; // The number of relabels, for the metrics
+        int end = graph.endArc(u);
+        while (excess[u] > 0) {
+            int arc = currentArc[u];
+            if (arc == end) {
+                work += relabel(graph, u);
+                relabels++;
+                if (height[u] >= 2 * noOfNodes) {
+                    break;
+                }
+                continue;
+            }
+
+            int v = graph.target(arc);
+            int residual = graph.residual(arc);
+            if (residual > 0 && height[u] == height[v] + 1) {
+                int amount = (int) Math.min(excess[u], residual);
+                graph.push(arc, amount);
+                pushes++;
+                excess[u] -= amount;
+                // The node becomes active when it receives its first unit of excess
+                if (excess[v] == 0 && v != source && v != sink) {
+                    nextActive[v] = bucketHead[height[v]];
+                    bucketHead[height[v]] = v;
+                }
+                excess[v] += amount;
+            } else {
+                currentArc[u] = arc + 1;
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            SolverMetrics.add(SolverMetrics.Counter.PUSHES, pushes);
+            SolverMetrics.add(SolverMetrics.Counter.RELABELS, relabels);
+            SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, work);
+        }
+        return work;
+    }
+
+    /**
+     * Lifts a node to one label above its lowest neighbour reachable through an arc with
+     * capacity left. If the node was the last one with its label, all the nodes above
+     * the gap are lifted as well.
+     *
+     * @param graph The residual graph holding the preflow.
+     * @param u     The node to relabel.
+     * @return int Returns the number of arcs scanned.
+     */
+    private int relabel(ResidualGraph graph, int u) {
+        int oldHeight = height[u];
+        int newHeight = 2 * noOfNodes;
+        for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+            if (graph.residual(arc) > 0) {
+                int candidate = height[graph.target(arc)] + 1;
+                if (candidate < newHeight) {
+                    newHeight = candidate;
+                    currentArc[u] = arc;
+                }
+            }
+        }
+
+        count[oldHeight]--;
+        if (oldHeight < noOfNodes && count[oldHeight] == 0) {
+            // Gap heuristic: no node can reach the sink through the empty label
+            for (int v = 0; v < noOfNodes; v++) {
+                if (height[v] > oldHeight && height[v] < noOfNodes) {
+                    count[height[v]]--;
+                    height[v] = noOfNodes + 1;
+                    count[height[v]]++;
+                    currentArc[v] = graph.firstArc(v);
+                }
+            }
+            newHeight = Math.max(newHeight, noOfNodes + 1);
+        }
+        height[u] = newHeight;
+        count[newHeight]++;
+        if (newHeight >= 2 * noOfNodes) {
+            return graph.endArc(u) - graph.firstArc(u);
+        }
+
+        // Keep discharging the node with its new label
+        if (newHeight > highest) {
+            highest = newHeight;
+        }
+        return graph.endArc(u) - graph.firstArc(u);
+    }
+
+    /**
+     * Recomputes the label of every node as its distance to the sink in the residual
+     * graph. The nodes that cannot reach the sink get the number of nodes plus their
+     * distance to the source, so their excess is sent back to the source.
+     *
+     * @param graph  The residual graph holding the preflow.
+     * @param source The source node of the given graph.
+     * @param sink   The sink node of the given graph.
+     * @return long Returns the time taken in nanoseconds when the metrics are on.
+     */
+    private long globalRelabel(ResidualGraph graph, int source, int sink) {
+        long startTime = SolverMetrics.ENABLED ? System.nanoTime() : 0;
+        int unlabelled = 2 * noOfNodes;
+        for (int u = 0; u < noOfNodes; u++) {
+            height[u] = unlabelled;
+            currentArc[u] = graph.firstArc(u);
+        }
+        height[source] = noOfNodes;
+        height[sink] = 0;
+        int dequeued = reverseBfs(graph, sink, unlabelled) +
+                reverseBfs(graph, source, unlabelled);
+
+        // Rebuild the label counts and the buckets of active nodes
+        for (int h = 0; h <= 2 * noOfNodes; h++) {
+            count[h] = 0;
+            bucketHead[h] = -1;
+        }
+        highest = -1;
+        for (int u = 0; u < noOfNodes; u++) {
+            count[height[u]]++;
+            if (excess[u] > 0 && u != source && u != sink && height[u] < unlabelled) {
+                nextActive[u] = bucketHead[height[u]];
+                bucketHead[height[u]] = u;
+                highest = Math.max(highest, height[u]);
+            }
+        }
+        if (!SolverMetrics.ENABLED) {
+            return 0;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        SolverMetrics.add(SolverMetrics.Counter.SEARCHES, 1);
+        SolverMetrics.add(SolverMetrics.Counter.NODES_DEQUEUED, dequeued);
+        SolverMetrics.addTime(SolverMetrics.Phase.SEARCH, elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Labels the unlabelled nodes that can reach the given root in the residual graph
+     * with the label of the root plus their distance to it.
+     *
+     * @param graph      The residual graph holding the preflow.
+     * @param root       The node the search starts from.
+     * @param unlabelled The label of the nodes not reached yet.
+     * @return int Returns the number of nodes taken from the queue.
+     */
+    private int reverseBfs(ResidualGraph graph, int root, int unlabelled) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                int v = graph.target(arc);
+                // v can reach u if the arc v-u (the reverse of u-v) has capacity left
+                if (height[v] == unlabelled && graph.residual(graph.reverse(arc)) > 0) {
+                    height[v] = height[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        if (SolverMetrics.ENABLED) {
+            long arcsScanned = 0;
+            for (int i = 0; i < tail; i++) {
+                arcsScanned += graph.endArc(queue[i]) - graph.firstArc(queue[i]);
+            }
+            SolverMetrics.add(SolverMetrics.Counter.ARCS_SCANNED, arcsScanned);
+        }
+        return tail;
+    }
+
+}
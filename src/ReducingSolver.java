@@ -0,0 +1,57 @@
+/**
+ * This ReducingSolver class shrinks a graph with a GraphReducer before handing it to
+ * another solver, and expands the flow found back onto the edges of the given graph.
+ * The flow left in the given graph is a maximum flow of it, so it can be printed and
+ * validated the same way as the flow of any other solver.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ReducingSolver implements MaxFlowSolver {
+    private final MaxFlowSolver solver; // The solver run on the reduced graph
+    private GraphReducer reducer; // The reduction of the last solve
+
+    /**
+     * This is the constructor of ReducingSolver class.
+     *
+     * @param solver The solver run on the reduced graph.
+     */
+    public ReducingSolver(MaxFlowSolver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Reduces the given graph, calculates the maximum possible flow of the reduced
+     * graph and expands the flow onto the given graph.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        reducer = new GraphReducer(graph, source, sink);
+        int maximumFlow = solver.maxFlow(reducer.getReducedGraph(), reducer.getSource(),
+                reducer.getSink());
+        reducer.expandFlow();
+        return maximumFlow;
+    }
+
+    /**
+     * @return ResidualGraph Returns the reduced graph of the last solve.
+     */
+    public ResidualGraph getReducedGraph() {
+        return reducer.getReducedGraph();
+    }
+
+    /**
+     * @return String Returns the name of the solver run on the reduced graph.
+     */
+    @Override
+    public String getName() {
+        return solver.getName();
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * This ReorderingSolver class numbers the nodes of a graph again with a VertexReordering
+ * before handing it to another solver, and copies the flow found back onto the edges of
+ * the given graph. The flow left in the given graph is a maximum flow of it, so it can
+ * be printed and validated the same way as the flow of any other solver.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ReorderingSolver implements MaxFlowSolver {
+    private final MaxFlowSolver solver; // The solver run on the reordered graph
+    private final VertexReordering.Order order; // The order the nodes are numbered in
+    private VertexReordering reordering; // The reordering of the last solve
+
+    /**
+     * This is the constructor of ReorderingSolver class.
+     *
+     * @param solver The solver run on the reordered graph.
+     * @param order  The order the nodes are numbered in.
+     */
+    public ReorderingSolver(MaxFlowSolver solver, VertexReordering.Order order) {
+        this.solver = solver;
+        this.order = order;
+    }
+
+    /**
+     * Wraps a solver in a ReorderingSolver if the system property maxflow.reorder names
+     * an order (BFS, REVERSE_CUTHILL_MCKEE or DEGREE).
+     *
+     * @param solver The solver of the chosen algorithm.
+     * @return MaxFlowSolver Returns the solver, reordering the graph first if asked to.
+     * @throws IllegalArgumentException If the property does not name an order.
+     */
+    public static MaxFlowSolver fromProperty(MaxFlowSolver solver) {
+        String order = System.getProperty("maxflow.reorder");
+        if (order == null) {
+            return solver;
+        }
+        return new ReorderingSolver(solver, VertexReordering.Order.valueOf(order));
+    }
+
+    /**
+     * Reorders the given graph, calculates the maximum possible flow of the reordered
+     * graph and copies the flow onto the given graph.
+     *
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    @Override
+    public int maxFlow(ResidualGraph graph, int source, int sink) {
+        reordering = new VertexReordering(graph, source, order);
+        int maximumFlow = solver.maxFlow(reordering.getReorderedGraph(),
+                reordering.getNewNode(source), reordering.getNewNode(sink));
+        reordering.copyFlow();
+        return maximumFlow;
+    }
+
+    /**
+     * @return VertexReordering Returns the reordering of the last solve.
+     */
+    public VertexReordering getReordering() {
+        return reordering;
+    }
+
+    /**
+     * @return String Returns the name of the solver run on the reordered graph.
+     */
+    @Override
+    public String getName() {
+        return solver.getName();
+    }
+
+}
@@ -0,0 +1,262 @@
+/**
+ * This ResidualGraph class describes a flow network in compressed sparse row (CSR)
+ * form. Every edge u-v is stored as a forward arc in the row of u and a paired reverse
+ * arc in the row of v, so the memory used grows with the number of edges instead of
+ * the square of the number of nodes.
+ *
+ * The arcs of node u are stored from firstArc(u) up to endArc(u). The forward arcs
+ * (the edges leaving u) come first and end at forwardEnd(u), the reverse arcs of the
+ * edges entering u follow them.
+ *
+ * The solvers only use the methods of this class, so the arrays can be kept on the
+ * heap (ArrayResidualGraph) or in buffers outside of it (BufferResidualGraph).
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public abstract class ResidualGraph {
+
+    /**
+     * Builds a residual graph from a dense adjacency matrix. Only the cells with a
+     * positive capacity become edges, self loops are left out since they can never
+     * carry flow from the source to the sink.
+     *
+     * @param matrix The matrix of the given graph with the edges.
+     * @return ResidualGraph Returns the CSR form of the given matrix.
+     */
+    public static ResidualGraph fromMatrix(int[][] matrix) {
+        int noOfNodes = matrix.length;
+        int noOfEdges = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int v = 0; v < noOfNodes; v++) {
+                if (u != v && matrix[u][v] > 0) {
+                    noOfEdges++;
+                }
+            }
+        }
+
+        int[] from = new int[noOfEdges];
+        int[] to = new int[noOfEdges];
+        int[] capacity = new int[noOfEdges];
+        int edge = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int v = 0; v < noOfNodes; v++) {
+                if (u != v && matrix[u][v] > 0) {
+                    from[edge] = u;
+                    to[edge] = v;
+                    capacity[edge] = matrix[u][v];
+                    edge++;
+                }
+            }
+        }
+        return new ArrayResidualGraph(noOfNodes, noOfEdges, from, to, capacity);
+    }
+
+    /**
+     * Removes all flow from the graph so the residual capacities are the same as
+     * the capacities of the edges.
+     */
+    public void reset() {
+        for (int arc = 0; arc < getNoOfArcs(); arc++) {
+            setResidual(arc, capacity(arc));
+        }
+    }
+
+    /**
+     * Sends flow along an arc and gives the same amount back to its reverse arc.
+     *
+     * @param arc    The arc the flow is sent along.
+     * @param amount The amount of flow to send.
+     */
+    public void push(int arc, int amount) {
+        int reverse = reverse(arc);
+        setResidual(arc, residual(arc) - amount);
+        setResidual(reverse, residual(reverse) + amount);
+    }
+
+    /**
+     * Changes the capacity of an edge and keeps the flow it carries. If the edge
+     * carries more flow than the new capacity, its flow is cut down to the capacity.
+     *
+     * @param arc      The forward arc of the edge.
+     * @param capacity The new capacity of the edge.
+     * @return int Returns the flow that was removed from the edge.
+     */
+    public int setCapacity(int arc, int capacity) {
+        int flow = flow(arc);
+        int newFlow = Math.min(flow, capacity);
+        int reverse = reverse(arc);
+        setArcCapacity(arc, capacity);
+        setResidual(arc, capacity - newFlow);
+        setResidual(reverse, capacity(reverse) + newFlow);
+        return flow - newFlow;
+    }
+
+    /**
+     * Builds a copy of this graph on the heap with one more edge. The flow of every
+     * existing edge is copied over, so a solver can carry on from the current flow.
+     *
+     * @param from     The start node of the new edge.
+     * @param to       The end node of the new edge.
+     * @param capacity The capacity of the new edge.
+     * @return ResidualGraph Returns the graph with the new edge added.
+     */
+    public ResidualGraph withEdge(int from, int to, int capacity) {
+        int noOfNodes = getNoOfNodes();
+        int noOfEdges = getNoOfEdges();
+        int[] edgeFrom = new int[noOfEdges + 1];
+        int[] edgeTo = new int[noOfEdges + 1];
+        int[] edgeCapacity = new int[noOfEdges + 1];
+        int edge = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int arc = firstArc(u); arc < forwardEnd(u); arc++) {
+                if (target(arc) != u) { // Loops (as in a GridGraph) never carry flow
+                    edgeFrom[edge] = u;
+                    edgeTo[edge] = target(arc);
+                    edgeCapacity[edge] = capacity(arc);
+                    edge++;
+                }
+            }
+        }
+        edgeFrom[edge] = from;
+        edgeTo[edge] = to;
+        edgeCapacity[edge] = capacity;
+        ResidualGraph graph = new ArrayResidualGraph(noOfNodes, edge + 1, edgeFrom, edgeTo,
+                edgeCapacity);
+
+        // The forward arcs keep their order, and the new edge comes after the other
+        // edges leaving its start node. Forward arcs paired with each other (as in a
+        // GridGraph) carry the flow of the pair on the arc where it is positive.
+        for (int u = 0; u < noOfNodes; u++) {
+            int copy = graph.firstArc(u);
+            for (int arc = firstArc(u); arc < forwardEnd(u); arc++) {
+                if (target(arc) != u) {
+                    graph.push(copy++, Math.max(0, flow(arc)));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Searches the forward arcs of a node for the edge to another node.
+     *
+     * @param from The start node of the edge.
+     * @param to   The end node of the edge.
+     * @return int Returns the forward arc of the edge, or -1 if there is no such edge.
+     */
+    public int findEdge(int from, int to) {
+        for (int arc = firstArc(from); arc < forwardEnd(from); arc++) {
+            if (target(arc) == to) {
+                return arc;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds up the flow of every arc of a node. The reverse arcs hold the flow entering
+     * the node as a negative flow.
+     *
+     * @param node The node whose flow is requested.
+     * @return int Returns the flow leaving the node minus the flow entering it.
+     */
+    public int netFlow(int node) {
+        int flow = 0;
+        for (int arc = firstArc(node); arc < endArc(node); arc++) {
+            flow += flow(arc);
+        }
+        return flow;
+    }
+
+    /**
+     * @param arc The arc whose flow is requested.
+     * @return int Returns the flow sent along the arc (negative for reverse arcs).
+     */
+    public int flow(int arc) {
+        return capacity(arc) - residual(arc);
+    }
+
+    /**
+     * @return int Returns the number of nodes of the graph.
+     */
+    public abstract int getNoOfNodes();
+
+    /**
+     * Counts the forward arcs of every node. Every edge has one forward arc, but an
+     * arc is not always paired with a reverse arc of its own (in a GridGraph the two
+     * directions between neighbours are forward arcs paired with each other), so the
+     * edges cannot be counted as half of the arcs.
+     *
+     * @return int Returns the number of edges of the graph.
+     */
+    public int getNoOfEdges() {
+        int noOfEdges = 0;
+        for (int u = 0; u < getNoOfNodes(); u++) {
+            noOfEdges += forwardEnd(u) - firstArc(u);
+        }
+        return noOfEdges;
+    }
+
+    /**
+     * @return int Returns the number of arcs, which is twice the number of edges for
+     * graphs that pair every edge with a reverse arc.
+     */
+    public abstract int getNoOfArcs();
+
+    /**
+     * @param node The node whose arcs are requested.
+     * @return int Returns the first arc of the node.
+     */
+    public abstract int firstArc(int node);
+
+    /**
+     * @param node The node whose arcs are requested.
+     * @return int Returns the arc following the last forward arc of the node.
+     */
+    public abstract int forwardEnd(int node);
+
+    /**
+     * @param node The node whose arcs are requested.
+     * @return int Returns the arc following the last arc of the node.
+     */
+    public abstract int endArc(int node);
+
+    /**
+     * @param arc The arc whose end node is requested.
+     * @return int Returns the node the arc points to.
+     */
+    public abstract int target(int arc);
+
+    /**
+     * @param arc The arc whose pair is requested.
+     * @return int Returns the arc pointing in the opposite direction.
+     */
+    public abstract int reverse(int arc);
+
+    /**
+     * @param arc The arc whose capacity is requested.
+     * @return int Returns the capacity of the arc (0 for reverse arcs).
+     */
+    public abstract int capacity(int arc);
+
+    /**
+     * @param arc The arc whose residual capacity is requested.
+     * @return int Returns the capacity left on the arc.
+     */
+    public abstract int residual(int arc);
+
+    /**
+     * @param arc      The arc whose residual capacity is changed.
+     * @param residual The capacity left on the arc.
+     */
+    protected abstract void setResidual(int arc, int residual);
+
+    /**
+     * @param arc      The arc whose capacity is changed.
+     * @param capacity The new capacity of the arc.
+     */
+    protected abstract void setArcCapacity(int arc, int capacity);
+
+}
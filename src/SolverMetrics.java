@@ -0,0 +1,200 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This SolverMetrics class counts the work done by the solvers and times their phases,
+ * to show where the time of a slow solve goes.
+ *
+ * The metrics are switched on with the system property maxflow.metrics
+ * (java -Dmaxflow.metrics=true ...). The switch is a constant, so when it is off the
+ * JIT compiler removes the counting code and the solvers run as if it was not there.
+ * When it is on, every solve is also recorded as a MaxFlowSolveEvent in Java Flight
+ * Recorder.
+ *
+ * Every solver counts its work in the terms that fit it:
+ * - The augmenting path solvers count a search for every Breadth First Search (the
+ *   level graphs of Dinic and the trees grown by Boykov-Kolmogorov included) and time
+ *   them as SEARCH, and time the sending of flow along the paths found as AUGMENT.
+ * - The push-relabel solvers count their pushes and relabels, count a search for
+ *   every global relabel and time it as SEARCH, and time the discharges as AUGMENT.
+ * - FlowResultWriter times the writing of the result from the residual graph as
+ *   EXTRACT.
+ *
+ * The counters are shared by all threads and add up every solve since the last reset.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public final class SolverMetrics {
+    // True if the metrics are collected
+    public static final boolean ENABLED = Boolean.getBoolean("maxflow.metrics");
+
+    /**
+     * The events counted by the solvers.
+     */
+    public enum Counter {
+        SEARCHES, AUGMENTING_PATHS, ARCS_SCANNED, NODES_DEQUEUED, PUSHES, RELABELS
+    }
+
+    /**
+     * The timed phases of a solve.
+     */
+    public enum Phase {
+        INIT, SEARCH, AUGMENT, EXTRACT
+    }
+
+    // Bottlenecks are counted in buckets of powers of two: bucket b holds the
+    // bottlenecks from 2^(b - 1) up to 2^b - 1, and bucket 0 holds the zeros
+    private static final int NO_OF_BUCKETS = 33;
+
+    private static final LongAdder[] counts = newAdders(Counter.values().length);
+    private static final LongAdder[] nanos = newAdders(Phase.values().length);
+    private static final LongAdder[] bottlenecks = newAdders(NO_OF_BUCKETS);
+
+    private SolverMetrics() {
+    }
+
+    private static LongAdder[] newAdders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Adds to a counter. Callers check ENABLED first.
+     *
+     * @param counter The counter to add to.
+     * @param amount  The amount to add.
+     */
+    public static void add(Counter counter, long amount) {
+        counts[counter.ordinal()].add(amount);
+    }
+
+    /**
+     * Adds to the time spent in a phase. Callers check ENABLED first.
+     *
+     * @param phase   The phase the time was spent in.
+     * @param elapsed The time spent in nanoseconds.
+     */
+    public static void addTime(Phase phase, long elapsed) {
+        nanos[phase.ordinal()].add(elapsed);
+    }
+
+    /**
+     * Counts the bottleneck of an augmenting path. Callers check ENABLED first.
+     *
+     * @param bottleneck The flow sent along the path.
+     */
+    public static void addBottleneck(int bottleneck) {
+        bottlenecks[32 - Integer.numberOfLeadingZeros(Math.max(0, bottleneck))].increment();
+    }
+
+    /**
+     * Runs a solver and records the solve as a Java Flight Recorder event when the
+     * metrics are on.
+     *
+     * @param solver The solver to run.
+     * @param graph  The given flow graph in CSR form.
+     * @param source The source from which the algorithm searches.
+     * @param sink   The sink to which the algorithm searches to.
+     * @return int Returns the maximum possible flow of the given graph.
+     */
+    public static int solve(MaxFlowSolver solver, ResidualGraph graph, int source,
+                            int sink) {
+        if (!ENABLED) {
+            return solver.maxFlow(graph, source, sink);
+        }
+        MaxFlowSolveEvent event = new MaxFlowSolveEvent();
+        long searches = getCount(Counter.SEARCHES);
+        long paths = getCount(Counter.AUGMENTING_PATHS);
+        long arcs = getCount(Counter.ARCS_SCANNED);
+        long pushes = getCount(Counter.PUSHES);
+        long relabels = getCount(Counter.RELABELS);
+        event.begin();
+        int maximumFlow = solver.maxFlow(graph, source, sink);
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = solver.getName();
+            event.noOfNodes = graph.getNoOfNodes();
+            event.noOfEdges = graph.getNoOfEdges();
+            event.source = source;
+            event.sink = sink;
+            event.maximumFlow = maximumFlow;
+            event.searches = getCount(Counter.SEARCHES) - searches;
+            event.augmentingPaths = getCount(Counter.AUGMENTING_PATHS) - paths;
+            event.arcsScanned = getCount(Counter.ARCS_SCANNED) - arcs;
+            event.pushes = getCount(Counter.PUSHES) - pushes;
+            event.relabels = getCount(Counter.RELABELS) - relabels;
+            event.commit();
+        }
+        return maximumFlow;
+    }
+
+    /**
+     * @param counter The counter requested.
+     * @return long Returns the value of the counter.
+     */
+    public static long getCount(Counter counter) {
+        return counts[counter.ordinal()].sum();
+    }
+
+    /**
+     * @param phase The phase requested.
+     * @return long Returns the time spent in the phase in nanoseconds.
+     */
+    public static long getNanos(Phase phase) {
+        return nanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * @param bucket The bucket requested, from 0 to 32.
+     * @return long Returns the number of augmenting paths whose bottleneck falls in the
+     * bucket.
+     */
+    public static long getBottleneckCount(int bucket) {
+        return bottlenecks[bucket].sum();
+    }
+
+    /**
+     * Sets every counter and timer back to zero.
+     */
+    public static void reset() {
+        for (LongAdder adder : counts) {
+            adder.reset();
+        }
+        for (LongAdder adder : nanos) {
+            adder.reset();
+        }
+        for (LongAdder adder : bottlenecks) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * @return String Returns the counters, the phase times and the bottleneck
+     * distribution, one per line.
+     */
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            report.append(counter).append(": ").append(getCount(counter)).append('\n');
+        }
+        for (Phase phase : Phase.values()) {
+            report.append(phase).append(" time: ").append(getNanos(phase) / 1000)
+                    .append(" microseconds\n");
+        }
+        for (int bucket = 0; bucket < NO_OF_BUCKETS; bucket++) {
+            long count = getBottleneckCount(bucket);
+            if (count > 0) {
+                long low = bucket == 0 ? 0 : 1L << (bucket - 1);
+                long high = bucket == 0 ? 0 : (1L << bucket) - 1;
+                report.append("Bottleneck ").append(low).append(" - ").append(high)
+                        .append(": ").append(count).append('\n');
+            }
+        }
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,280 @@
+import java.util.Arrays;
+
+/**
+ * This VertexReordering class numbers the nodes of a graph again so that nodes visited
+ * one after the other by the solvers are stored close together in memory, and builds
+ * a copy of the graph with the new numbers. The node ids of a file follow the order of
+ * its lines, so the searches of the solvers jump all over the arrays and most of their
+ * time goes to cache misses on large graphs.
+ *
+ * In the copy, the arcs of each node are sorted by the new number of their target, so
+ * a scan of the arcs of a node also reads the arrays of its neighbours in order. The
+ * flow found on the copy is copied back onto the edges of the given graph, so the
+ * reordering cannot be seen from the outside.
+ *
+ * Three orders are available:
+ * - BFS numbers the nodes in the order a breadth first search from the source reaches
+ *   them, the order the augmenting path searches visit them in.
+ * - REVERSE_CUTHILL_MCKEE is a breadth first search that starts from a node of lowest
+ *   degree and visits the neighbours of lowest degree first, reversed. It keeps the
+ *   numbers of neighbours close together, so the arcs of every node point to nearby
+ *   nodes.
+ * - DEGREE numbers the nodes from the highest degree to the lowest, so the nodes
+ *   visited most often share the same cache lines.
+ * The edges are taken as undirected by all of them, and the nodes the search does not
+ * reach are numbered after the others, component by component.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class VertexReordering {
+
+    /**
+     * The orders the nodes can be numbered in.
+     */
+    public enum Order {
+        BFS, REVERSE_CUTHILL_MCKEE, DEGREE
+    }
+
+    private final ResidualGraph graph; // The given graph
+    private final int[] newNode; // The new number of each node of the given graph
+    private final int[] oldNode; // The node of the given graph with each new number
+    private final int[] arcMap; // The arc of the copy for each forward arc of the given graph
+    private final ArrayResidualGraph reorderedGraph; // The copy with the new numbers
+
+    /**
+     * This is the constructor of VertexReordering class. It numbers the nodes in the
+     * given order and builds the copy of the graph right away.
+     *
+     * @param graph  The graph to reorder.
+     * @param source The source node of the given graph.
+     * @param order  The order to number the nodes in.
+     */
+    public VertexReordering(ResidualGraph graph, int source, Order order) {
+        this(graph, numberNodes(graph, source, order));
+    }
+
+    /**
+     * This is the constructor of VertexReordering class. It builds the copy of the graph
+     * with the given numbers right away.
+     *
+     * @param graph   The graph to reorder.
+     * @param newNode The new number of each node, a permutation of the nodes.
+     */
+    public VertexReordering(ResidualGraph graph, int[] newNode) {
+        int noOfNodes = graph.getNoOfNodes();
+        if (newNode.length != noOfNodes) {
+            throw new IllegalArgumentException("The numbering must have one number per node");
+        }
+        this.graph = graph;
+        this.newNode = newNode;
+        oldNode = new int[noOfNodes];
+        Arrays.fill(oldNode, -1);
+        for (int u = 0; u < noOfNodes; u++) {
+            if (newNode[u] < 0 || newNode[u] >= noOfNodes || oldNode[newNode[u]] >= 0) {
+                throw new IllegalArgumentException("The numbering must be a permutation " +
+                        "of the nodes");
+            }
+            oldNode[newNode[u]] = u;
+        }
+
+        // List the edges by their new start node, and the edges of each node by their
+        // new end node, so the copy places its arcs in that order
+        int noOfEdges = 0;
+        for (int u = 0; u < noOfNodes; u++) {
+            noOfEdges += graph.forwardEnd(u) - graph.firstArc(u);
+        }
+        int[] from = new int[noOfEdges];
+        int[] to = new int[noOfEdges];
+        int[] capacity = new int[noOfEdges];
+        int[] edgeArc = new int[noOfEdges]; // The forward arc of the given graph of each edge
+        long[] keys = new long[0];
+        int edge = 0;
+        for (int v = 0; v < noOfNodes; v++) {
+            int u = oldNode[v];
+            int first = graph.firstArc(u);
+            int degree = graph.forwardEnd(u) - first;
+            if (keys.length < degree) {
+                keys = new long[Math.max(degree, 2 * keys.length)];
+            }
+            for (int i = 0; i < degree; i++) {
+                keys[i] = (long) newNode[graph.target(first + i)] << 32 | i;
+            }
+            Arrays.sort(keys, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                int arc = first + (int) keys[i];
+                from[edge] = v;
+                to[edge] = newNode[graph.target(arc)];
+                capacity[edge] = graph.capacity(arc);
+                edgeArc[edge] = arc;
+                edge++;
+            }
+        }
+        reorderedGraph = new ArrayResidualGraph(noOfNodes, noOfEdges, from, to, capacity);
+
+        // The forward arcs of a node in the copy keep the order of its edges
+        arcMap = new int[graph.getNoOfArcs()];
+        int[] next = new int[noOfNodes];
+        for (int v = 0; v < noOfNodes; v++) {
+            next[v] = reorderedGraph.firstArc(v);
+        }
+        for (edge = 0; edge < noOfEdges; edge++) {
+            arcMap[edgeArc[edge]] = next[from[edge]]++;
+        }
+    }
+
+    /**
+     * Numbers the nodes of a graph in the given order.
+     *
+     * @param graph  The graph to number.
+     * @param source The source node of the graph.
+     * @param order  The order to number the nodes in.
+     * @return int[] Returns the new number of each node.
+     */
+    public static int[] numberNodes(ResidualGraph graph, int source, Order order) {
+        int noOfNodes = graph.getNoOfNodes();
+        int[] sequence; // The nodes in their new order
+        if (order == Order.DEGREE) {
+            // Sort by degree from the highest, keeping the old order between equal degrees
+            long[] keys = new long[noOfNodes];
+            for (int u = 0; u < noOfNodes; u++) {
+                keys[u] = (long) -degree(graph, u) << 32 | u;
+            }
+            Arrays.sort(keys);
+            sequence = new int[noOfNodes];
+            for (int i = 0; i < noOfNodes; i++) {
+                sequence[i] = (int) keys[i];
+            }
+        } else {
+            sequence = breadthFirstOrder(graph, source,
+                    order == Order.REVERSE_CUTHILL_MCKEE);
+        }
+
+        int[] newNode = new int[noOfNodes];
+        for (int i = 0; i < noOfNodes; i++) {
+            newNode[sequence[i]] = order == Order.REVERSE_CUTHILL_MCKEE
+                    ? noOfNodes - 1 - i : i;
+        }
+        return newNode;
+    }
+
+    /**
+     * Lists the nodes in breadth first order, one component after the other.
+     *
+     * @param graph        The graph to search.
+     * @param source       The node the first search starts from (ignored by
+     *                     Cuthill-McKee).
+     * @param cuthillMcKee True to start each search from the unvisited node of lowest
+     *                     degree and to visit the neighbours of lowest degree first.
+     * @return int[] Returns the nodes in the order they were visited.
+     */
+    private static int[] breadthFirstOrder(ResidualGraph graph, int source,
+                                           boolean cuthillMcKee) {
+        int noOfNodes = graph.getNoOfNodes();
+        boolean[] visited = new boolean[noOfNodes];
+        int[] sequence = new int[noOfNodes]; // Also the queue of the searches
+        int[] starts; // The candidate start nodes, in the order they are tried
+        if (cuthillMcKee) {
+            long[] keys = new long[noOfNodes];
+            for (int u = 0; u < noOfNodes; u++) {
+                keys[u] = (long) degree(graph, u) << 32 | u;
+            }
+            Arrays.sort(keys);
+            starts = new int[noOfNodes];
+            for (int i = 0; i < noOfNodes; i++) {
+                starts[i] = (int) keys[i];
+            }
+        } else {
+            starts = new int[noOfNodes + 1];
+            starts[0] = source;
+            for (int u = 0; u < noOfNodes; u++) {
+                starts[u + 1] = u;
+            }
+        }
+
+        long[] keys = new long[0];
+        int tail = 0;
+        for (int start : starts) {
+            if (visited[start]) {
+                continue;
+            }
+            int head = tail;
+            visited[start] = true;
+            sequence[tail++] = start;
+            while (head < tail) {
+                int u = sequence[head++];
+                int first = tail;
+                for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                    int v = graph.target(arc);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        sequence[tail++] = v;
+                    }
+                }
+                if (cuthillMcKee && tail - first > 1) {
+                    // Visit the new neighbours from the lowest degree
+                    if (keys.length < tail - first) {
+                        keys = new long[Math.max(tail - first, 2 * keys.length)];
+                    }
+                    for (int i = first; i < tail; i++) {
+                        keys[i - first] = (long) degree(graph, sequence[i]) << 32 | sequence[i];
+                    }
+                    Arrays.sort(keys, 0, tail - first);
+                    for (int i = first; i < tail; i++) {
+                        sequence[i] = (int) keys[i - first];
+                    }
+                }
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * @param graph The graph.
+     * @param node  A node of the graph.
+     * @return int Returns the number of arcs of the node, both forward and reverse.
+     */
+    private static int degree(ResidualGraph graph, int node) {
+        return graph.endArc(node) - graph.firstArc(node);
+    }
+
+    /**
+     * Copies the flow found on the reordered graph onto the edges of the given graph.
+     */
+    public void copyFlow() {
+        graph.reset();
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                int flow = reorderedGraph.flow(arcMap[arc]);
+                if (flow != 0) {
+                    graph.push(arc, flow);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ResidualGraph Returns the copy of the graph with the new numbers.
+     */
+    public ResidualGraph getReorderedGraph() {
+        return reorderedGraph;
+    }
+
+    /**
+     * @param node A node of the given graph.
+     * @return int Returns the number of the node in the reordered graph.
+     */
+    public int getNewNode(int node) {
+        return newNode[node];
+    }
+
+    /**
+     * @param node A node of the reordered graph.
+     * @return int Returns the number of the node in the given graph.
+     */
+    public int getOldNode(int node) {
+        return oldNode[node];
+    }
+
+}
@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This AdaptiveSolverTest class checks that the AdaptiveSolver finds the same flow as
+ * Edmonds-Karp whichever algorithm it chooses, that it is named after the algorithm it
+ * chose, and that each rule of select takes effect from its threshold on.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class AdaptiveSolverTest {
+
+    @Test
+    public void matchesEdmondsKarp() {
+        TestGraphs.assertMatchesEdmondsKarp("AdaptiveSolver", new AdaptiveSolver(), 50);
+    }
+
+    @Test
+    public void isNamedAfterTheChosenAlgorithm() {
+        AdaptiveSolver solver = new AdaptiveSolver();
+        solver.maxFlow(TestGraphs.randomGraph(20, 60, 10, new Random(51)), 0, 19);
+        assertNotEquals("AdaptiveSolver", solver.getName());
+        assertEquals(solver.getEngine().create().getName(), solver.getName());
+        assertEquals(solver.getName(), new ReducingSolver(solver).getName());
+    }
+
+    @Test
+    public void denseGraphsGoToPushRelabel() {
+        // 100 nodes have 9900 ordered pairs, so 495 edges are a density of 0.05
+        assertEquals(AdaptiveSolver.Engine.PUSH_RELABEL,
+                AdaptiveSolver.select(new GraphStatistics(100, 495, 1, 1000, 0, false)));
+        assertEquals(AdaptiveSolver.Engine.BOYKOV_KOLMOGOROV,
+                AdaptiveSolver.select(new GraphStatistics(100, 494, 1, 1000, 0, false)));
+        // Density comes before structure
+        assertEquals(AdaptiveSolver.Engine.PUSH_RELABEL,
+                AdaptiveSolver.select(new GraphStatistics(100, 495, 1, 1, 1, true)));
+    }
+
+    @Test
+    public void graphsWithAsManyEdgesAsNodesGoToDinic() {
+        assertEquals(AdaptiveSolver.Engine.DINIC,
+                AdaptiveSolver.select(new GraphStatistics(10000, 10000, 1, 9, 0.54, false)));
+        assertEquals(AdaptiveSolver.Engine.BOYKOV_KOLMOGOROV,
+                AdaptiveSolver.select(new GraphStatistics(10000, 10001, 1, 9, 0.54, false)));
+    }
+
+    @Test
+    public void gridsAndBipartiteGraphsGoToDinicOrPushRelabel() {
+        assertEquals(AdaptiveSolver.Engine.DINIC,
+                AdaptiveSolver.select(new GraphStatistics(10000, 40000, 1, 1, 0.9, false)));
+        assertEquals(AdaptiveSolver.Engine.PUSH_RELABEL,
+                AdaptiveSolver.select(new GraphStatistics(10000, 40000, 1, 9, 0.9, false)));
+        assertEquals(AdaptiveSolver.Engine.DINIC,
+                AdaptiveSolver.select(new GraphStatistics(10000, 40000, 1, 1, 0, true)));
+        assertEquals(AdaptiveSolver.Engine.PUSH_RELABEL,
+                AdaptiveSolver.select(new GraphStatistics(10000, 40000, 1, 9, 0, true)));
+    }
+
+    @Test
+    public void otherSparseGraphsGoToBoykovKolmogorov() {
+        assertEquals(AdaptiveSolver.Engine.BOYKOV_KOLMOGOROV,
+                AdaptiveSolver.select(new GraphStatistics(10000, 40000, 1, 9, 0.89, false)));
+        assertEquals(AdaptiveSolver.Engine.PUSH_RELABEL,
+                AdaptiveSolver.select(new GraphStatistics(10000, 40000, 1, 1, 0.89, false)));
+    }
+
+}
@@ -0,0 +1,49 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This BatchRunnerTest class checks that every file given to a BatchRunner gets one
+ * record in the output, whether it could be solved or not.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class BatchRunnerTest {
+
+    @Test
+    public void everyFileIsReportedOnce(@TempDir Path directory) throws Exception {
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Path file = directory.resolve("graph" + i + ".txt");
+            // Every third file cannot be loaded, the others have a flow of i + 1
+            Files.write(file, i % 3 == 0 ? List.of("not a graph") :
+                    List.of("3 0 2", "0 1 " + (i + 1), "1 2 " + (i + 5)));
+            files.add(file);
+        }
+        Path output = directory.resolve("results.csv");
+        int failures = new BatchRunner(3, 2).run(files, output);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(7, failures);
+        assertEquals(files.size() + 1, lines.size());
+        for (int i = 0; i < files.size(); i++) {
+            String name = files.get(i).toString();
+            long records = lines.stream().filter(line -> line.startsWith(name + ",")).count();
+            assertEquals(1, records, name);
+            if (i % 3 != 0) {
+                String solved = name + ",3,2," + (i + 1) + ",true,";
+                assertTrue(lines.stream().anyMatch(line -> line.startsWith(solved)), name);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This BoykovKolmogorovSolverTest class checks the BoykovKolmogorovSolver against
+ * Edmonds-Karp on random graphs as well as grids, since the search trees it reuses
+ * from one path to the next must stay valid on any graph.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class BoykovKolmogorovSolverTest {
+
+    @Test
+    public void matchesEdmondsKarp() {
+        TestGraphs.assertMatchesEdmondsKarp("BoykovKolmogorovSolver",
+                new BoykovKolmogorovSolver(), 60);
+    }
+
+    @Test
+    public void solvesTheTextbookNetwork() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        assertEquals(23, new BoykovKolmogorovSolver().maxFlow(graph, 0, 5));
+    }
+
+}
@@ -0,0 +1,43 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This CapacityScalingSolverTest class checks the flows of the CapacityScalingSolver
+ * against Edmonds-Karp, on small capacities and on capacities close to the largest int,
+ * where every bit of the capacities is a scaling phase.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class CapacityScalingSolverTest {
+
+    @Test
+    public void matchesEdmondsKarp() {
+        TestGraphs.assertMatchesEdmondsKarp("CapacityScalingSolver", new CapacityScalingSolver(), 22);
+    }
+
+    @Test
+    public void solvesTheTextbookNetwork() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        assertEquals(23, new CapacityScalingSolver().maxFlow(graph, 0, 5));
+    }
+
+    @Test
+    public void solvesLargeCapacities() {
+        Random random = new Random(23);
+        for (int trial = 0; trial < 20; trial++) {
+            // Every path has a bottleneck, so the total stays within an int
+            int noOfNodes = 2 + random.nextInt(20);
+            ResidualGraph graph = TestGraphs.randomGraph(noOfNodes, 3 * noOfNodes,
+                    Integer.MAX_VALUE / (3 * noOfNodes) - 1, random);
+            int sink = noOfNodes - 1;
+            assertEquals(TestGraphs.expectedFlow(graph, 0, sink),
+                    new CapacityScalingSolver().maxFlow(graph, 0, sink), "Graph " + trial);
+        }
+    }
+
+}
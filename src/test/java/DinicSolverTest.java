@@ -0,0 +1,54 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This DinicSolverTest class checks the flows of the DinicSolver against Edmonds-Karp,
+ * and checks a unit capacity matching, where every phase finds many paths of the same
+ * length.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class DinicSolverTest {
+
+    @Test
+    public void matchesEdmondsKarp() {
+        TestGraphs.assertMatchesEdmondsKarp("DinicSolver", new DinicSolver(), 20);
+    }
+
+    @Test
+    public void solvesTheTextbookNetwork() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        assertEquals(23, new DinicSolver().maxFlow(graph, 0, 5));
+    }
+
+    @Test
+    public void findsAPerfectMatching() {
+        // Source 0, left nodes 1 to 50, right nodes 51 to 100 and sink 101
+        int size = 50;
+        int noOfEdges = 2 * size + size * size;
+        int[] from = new int[noOfEdges];
+        int[] to = new int[noOfEdges];
+        int[] capacity = new int[noOfEdges];
+        int edge = 0;
+        for (int i = 1; i <= size; i++) {
+            from[edge] = 0;
+            to[edge++] = i;
+            from[edge] = size + i;
+            to[edge++] = 2 * size + 1;
+            for (int j = 1; j <= size; j++) {
+                from[edge] = i;
+                to[edge++] = size + j;
+            }
+        }
+        Arrays.fill(capacity, 1);
+        ResidualGraph graph = new ArrayResidualGraph(2 * size + 2, noOfEdges, from, to,
+                capacity);
+        assertEquals(size, new DinicSolver().maxFlow(graph, 0, 2 * size + 1));
+    }
+
+}
@@ -0,0 +1,161 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This FlowResultWriterTest class solves random graphs, writes the result in every
+ * format and reads it back. The flow read back must be the flow of the graph edge for
+ * edge, and the cut read back must be a minimum cut.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class FlowResultWriterTest {
+
+    @Test
+    public void everyFormatReadsBackTheFlowAndCut(@TempDir Path directory)
+            throws IOException {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 20; trial++) {
+            int noOfNodes = 2 + random.nextInt(30);
+            ResidualGraph graph = TestGraphs.randomGraph(noOfNodes,
+                    random.nextInt(6 * noOfNodes), 100, random);
+            int maximumFlow = new PushRelabelSolver().maxFlow(graph, 0, noOfNodes - 1);
+            FlowProblem problem = new FlowProblem(graph, 0, noOfNodes - 1, trial % 2);
+
+            for (String name : new String[]{"result.txt", "result.flow", "result.bin"}) {
+                Path path = directory.resolve(name);
+                FlowResultWriter.write(path, problem, maximumFlow);
+                Result result = name.endsWith(".bin") ? readBinary(path) :
+                        readText(path, name.endsWith(".flow") ? 1 : problem.nodeOffset);
+                String message = name + " of graph " + trial;
+                assertEquals(maximumFlow, result.maximumFlow, message);
+                assertEquals(flows(graph), result.flows, message);
+
+                // The cut is as large as the flow. Parallel edges are each listed, so
+                // each entry of the cut is matched to one arc with capacity.
+                List<int[]> cut = new ArrayList<>(result.cut);
+                long cutCapacity = 0;
+                for (int u = 0; u < noOfNodes; u++) {
+                    for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                        if (graph.capacity(arc) > 0 &&
+                                remove(cut, u, graph.target(arc))) {
+                            cutCapacity += graph.capacity(arc);
+                        }
+                    }
+                }
+                assertEquals(0, cut.size(), message);
+                assertEquals(maximumFlow, cutCapacity, message);
+            }
+        }
+    }
+
+    /**
+     * Removes an edge from a list of edges.
+     *
+     * @param edges The edges.
+     * @param from  The start node of the edge.
+     * @param to    The end node of the edge.
+     * @return boolean Returns true if the edge was in the list.
+     */
+    private static boolean remove(List<int[]> edges, int from, int to) {
+        for (int i = 0; i < edges.size(); i++) {
+            if (edges.get(i)[0] == from && edges.get(i)[1] == to) {
+                edges.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param graph The graph holding the flow.
+     * @return List Returns "from to flow" for every edge with flow, in the order of the
+     * arcs, as the writer writes them.
+     */
+    private static List<String> flows(ResidualGraph graph) {
+        List<String> flows = new ArrayList<>();
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                if (graph.flow(arc) > 0) {
+                    flows.add(u + " " + graph.target(arc) + " " + graph.flow(arc));
+                }
+            }
+        }
+        return flows;
+    }
+
+    /**
+     * Reads an edge-list or DIMACS result.
+     *
+     * @param path   The result file.
+     * @param offset The number of the first node in the file.
+     * @return Result Returns the result, with the nodes numbered from 0.
+     * @throws IOException If the file cannot be read.
+     */
+    private static Result readText(Path path, int offset) throws IOException {
+        Result result = new Result();
+        for (String line : Files.readAllLines(path, StandardCharsets.US_ASCII)) {
+            String[] fields = line.split(" ");
+            if (line.startsWith("# maximum flow ") || line.startsWith("s ")) {
+                result.maximumFlow = Integer.parseInt(fields[fields.length - 1]);
+            } else if (line.startsWith("# cut ") || line.startsWith("c cut ")) {
+                result.cut.add(new int[]{Integer.parseInt(fields[2]) - offset,
+                        Integer.parseInt(fields[3]) - offset});
+            } else {
+                int first = line.startsWith("f ") ? 1 : 0;
+                result.flows.add((Integer.parseInt(fields[first]) - offset) + " " +
+                        (Integer.parseInt(fields[first + 1]) - offset) + " " +
+                        fields[first + 2]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a binary result.
+     *
+     * @param path The result file.
+     * @return Result Returns the result, with the nodes numbered from 0.
+     * @throws IOException If the file cannot be read.
+     */
+    private static Result readBinary(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        Result result = new Result();
+        buffer.position(6 * 4); // Magic, version, nodes, source, sink and node offset
+        result.maximumFlow = buffer.getInt();
+        int noOfFlowEdges = buffer.getInt();
+        for (int i = 0; i < noOfFlowEdges; i++) {
+            result.flows.add(buffer.getInt() + " " + buffer.getInt() + " " + buffer.getInt());
+        }
+        int noOfCutEdges = buffer.getInt();
+        for (int i = 0; i < noOfCutEdges; i++) {
+            result.cut.add(new int[]{buffer.getInt(), buffer.getInt()});
+        }
+        assertEquals(0, buffer.remaining(), path.toString());
+        return result;
+    }
+
+    /**
+     * This Result class holds a result read back from a file.
+     */
+    private static class Result {
+        private int maximumFlow; // The maximum flow written
+        private final List<String> flows = new ArrayList<>(); // "from to flow" of each edge
+        private final List<int[]> cut = new ArrayList<>(); // The edges of the cut
+    }
+
+}
@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This FlowVerifierTest class gives the FlowVerifier flows that break each of its
+ * checks on the textbook network, and checks the violation it reports. A maximum flow
+ * must pass and leave the minimum cut in the verifier.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class FlowVerifierTest {
+    private final FlowVerifier verifier = new FlowVerifier();
+
+    @Test
+    public void flowOverTheCapacityIsRejected() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        graph.push(graph.findEdge(0, 1), 20);
+        graph.push(graph.findEdge(1, 3), 12);
+        graph.push(graph.findEdge(1, 2), 8);
+        graph.push(graph.findEdge(3, 5), 12);
+        graph.push(graph.findEdge(2, 4), 8);
+        graph.push(graph.findEdge(4, 5), 8);
+        assertEquals("Arc 0 - 1 carries 20 which is more than its capacity 16",
+                verifier.verify(graph, 0, 5, 20));
+    }
+
+    @Test
+    public void arcsMustCarryTheNegativeFlowOfTheirPair() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        // Flow on the arc without the matching flow on its reverse arc
+        graph.setResidual(graph.findEdge(0, 1), 10);
+        assertEquals("Arc 0 - 1 does not match the flow of its reverse arc",
+                verifier.verify(graph, 0, 5, 6));
+    }
+
+    @Test
+    public void flowMustBeConservedAtInnerNodes() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        graph.push(graph.findEdge(0, 1), 5);
+        assertEquals("Node 1 does not conserve flow (receives 5 more than it sends)",
+                verifier.verify(graph, 0, 5, 5));
+
+        graph.reset();
+        graph.push(graph.findEdge(2, 4), 4);
+        graph.push(graph.findEdge(4, 5), 4);
+        assertEquals("Node 2 does not conserve flow (sends 4 more than it receives)",
+                verifier.verify(graph, 0, 5, 0));
+    }
+
+    @Test
+    public void flowValueMustMatchTheClaimedMaximum() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        int maximumFlow = new DinicSolver().maxFlow(graph, 0, 5);
+        assertEquals("The source sends 23 but the maximum flow is 22",
+                verifier.verify(graph, 0, 5, maximumFlow - 1));
+        assertEquals("The source sends 23 but the maximum flow is 24",
+                verifier.verify(graph, 0, 5, maximumFlow + 1));
+    }
+
+    @Test
+    public void flowWithAnAugmentingPathLeftIsRejected() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        graph.push(graph.findEdge(0, 1), 12);
+        graph.push(graph.findEdge(1, 3), 12);
+        graph.push(graph.findEdge(3, 5), 12);
+        assertEquals("The flow is not maximum, an augmenting path to the sink is left",
+                verifier.verify(graph, 0, 5, 12));
+    }
+
+    @Test
+    public void maximumFlowLeavesTheMinimumCut() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        int maximumFlow = new MaximumFlowNetwork(6).fordFulkerson(graph, 0, 5);
+        assertNull(verifier.verify(graph, 0, 5, maximumFlow));
+        // The cut 1 - 3, 4 - 3 and 4 - 5 has capacity 12 + 7 + 4 = 23
+        boolean[] sourceSide = {true, true, true, false, true, false};
+        for (int u = 0; u < sourceSide.length; u++) {
+            assertEquals(sourceSide[u], verifier.isOnSourceSide(u), "Node " + u);
+        }
+        assertEquals(23, verifier.getCutCapacity());
+    }
+
+}
@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This GomoryHuTreeTest class checks the minimum cuts read from a GomoryHuTree against
+ * the maximum flow of the undirected graph between the same two nodes.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GomoryHuTreeTest {
+
+    @Test
+    public void everyPairMatchesTheMaximumFlow() {
+        Random random = new Random(2);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int trial = 0; trial < 30; trial++) {
+                int noOfNodes = 2 + random.nextInt(12);
+                ResidualGraph graph = TestGraphs.randomGraph(noOfNodes,
+                        random.nextInt(4 * noOfNodes), 10, random);
+                GomoryHuTree tree = new GomoryHuTree(graph, PushRelabelSolver::new, pool);
+                ResidualGraph undirected = TestGraphs.undirected(graph);
+                for (int u = 0; u < noOfNodes; u++) {
+                    for (int v = u + 1; v < noOfNodes; v++) {
+                        assertEquals(TestGraphs.expectedFlow(undirected, u, v),
+                                tree.minCut(u, v), "Trial " + trial + ", nodes " + u +
+                                        " and " + v);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void longPathIsBuiltInLinearMemory() {
+        // A path whose capacities shrink away from node 0, so every node is cut from
+        // its neighbour towards node 0 by the edge between them. Contracting each side
+        // of every cut into a copy of the graph would need over a gigabyte here.
+        int noOfNodes = 10000;
+        int[] from = new int[noOfNodes - 1];
+        int[] to = new int[noOfNodes - 1];
+        int[] capacity = new int[noOfNodes - 1];
+        for (int edge = 0; edge < noOfNodes - 1; edge++) {
+            from[edge] = edge;
+            to[edge] = edge + 1;
+            capacity[edge] = noOfNodes - edge;
+        }
+        GomoryHuTree tree = new GomoryHuTree(new ArrayResidualGraph(noOfNodes,
+                noOfNodes - 1, from, to, capacity), DinicSolver::new);
+        assertEquals(2, tree.minCut(0, noOfNodes - 1));
+        assertEquals(noOfNodes, tree.minCut(0, 1));
+        assertEquals(noOfNodes - 100, tree.minCut(50, 101));
+        for (int u = 1; u < noOfNodes; u++) {
+            assertEquals(u - 1, tree.getParent(u));
+        }
+    }
+
+}
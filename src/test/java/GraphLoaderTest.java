@@ -0,0 +1,129 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This GraphLoaderTest class writes random graphs as DIMACS and edge-list files and
+ * checks that they load back with the same edges, source, sink and maximum flow.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphLoaderTest {
+
+    @Test
+    public void dimacsFileLoadsTheSameGraph(@TempDir Path directory) throws IOException {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 20; trial++) {
+            ResidualGraph graph = TestGraphs.randomGraph(2 + random.nextInt(30),
+                    random.nextInt(200), 1000, random);
+            int sink = graph.getNoOfNodes() - 1;
+            Path path = directory.resolve("graph" + trial + ".max");
+            TestGraphs.writeDimacs(path, graph, 0, sink);
+            checkLoaded(graph, 0, sink, 1, path);
+        }
+    }
+
+    @Test
+    public void edgeListLoadsTheSameGraph(@TempDir Path directory) throws IOException {
+        Random random = new Random(10);
+        for (int trial = 0; trial < 20; trial++) {
+            ResidualGraph graph = TestGraphs.randomGraph(2 + random.nextInt(30),
+                    random.nextInt(200), 1000, random);
+            int source = random.nextInt(graph.getNoOfNodes());
+            int sink = (source + 1) % graph.getNoOfNodes();
+            StringBuilder text = new StringBuilder("# Graph " + trial + "\n");
+            text.append(graph.getNoOfNodes()).append(' ').append(source).append(' ')
+                    .append(sink).append('\n');
+            for (int u = 0; u < graph.getNoOfNodes(); u++) {
+                for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                    text.append(u).append(' ').append(graph.target(arc)).append(' ')
+                            .append(graph.capacity(arc)).append('\n');
+                }
+                // Loops are left out by the loader
+                text.append(u).append(' ').append(u).append(" 5\n");
+            }
+            Path path = directory.resolve("graph" + trial + ".txt");
+            Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+            checkLoaded(graph, source, sink, 0, path);
+        }
+    }
+
+    @Test
+    public void invalidFilesAreRejected(@TempDir Path directory) throws IOException {
+        String[] files = {
+                "p min 3 1\nn 1 s\nn 3 t\na 1 3 5\n", // Not a max-flow problem
+                "p max 3 1\nn 1 s\na 1 3 5\n", // No sink
+                "p max 3 1\nn 1 s\nn 3 t\na 1 4 5\n", // Node out of range
+                "p max 3 1\nn 1 s\nn 3 t\na 1 3 -5\n", // Negative capacity
+                "3 0 0\n0 1 5\n", // Source and sink are the same node
+                "x\n"};
+        for (int i = 0; i < files.length; i++) {
+            Path path = directory.resolve("invalid" + i + ".max");
+            Files.write(path, files[i].getBytes(StandardCharsets.US_ASCII));
+            assertThrows(IOException.class, () -> GraphLoader.load(path), files[i]);
+        }
+    }
+
+    @Test
+    public void headerCountsAreNotTrusted(@TempDir Path directory) throws IOException {
+        // Two arcs, but the header claims two billion of them
+        Path path = directory.resolve("arcs.max");
+        Files.write(path, "p max 3 2000000000\nn 1 s\nn 3 t\na 1 2 5\na 2 3 4\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        FlowProblem problem = GraphLoader.load(path);
+        assertEquals(2, problem.graph.getNoOfEdges());
+        assertEquals(4, new DinicSolver().maxFlow(problem.graph, 0, 2));
+
+        Path nodes = directory.resolve("nodes.max");
+        Files.write(nodes, "p max 2000000000 1\nn 1 s\nn 3 t\na 1 3 5\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        IOException error = assertThrows(IOException.class, () -> GraphLoader.load(nodes));
+        assertEquals("Line 1: 2000000000 nodes do not fit in the heap", error.getMessage());
+    }
+
+    @Test
+    public void negativeCapacitiesAreReported(@TempDir Path directory) throws IOException {
+        String[] files = {"p max 3 1\nn 1 s\nn 3 t\na 1 3 -5\n", "3 0 2\n0 2 -5\n"};
+        for (int i = 0; i < files.length; i++) {
+            Path path = directory.resolve("negative" + i + ".max");
+            Files.write(path, files[i].getBytes(StandardCharsets.US_ASCII));
+            IOException error = assertThrows(IOException.class, () -> GraphLoader.load(path));
+            assertEquals("Line " + (i == 0 ? 4 : 2) + ": capacities cannot be negative",
+                    error.getMessage());
+        }
+    }
+
+    /**
+     * Loads a graph file and compares it with the graph it was written from.
+     *
+     * @param graph      The graph written to the file.
+     * @param source     The source named in the file.
+     * @param sink       The sink named in the file.
+     * @param nodeOffset The number of the first node in the file.
+     * @param path       The graph file.
+     * @throws IOException If the file cannot be loaded.
+     */
+    private static void checkLoaded(ResidualGraph graph, int source, int sink,
+                                    int nodeOffset, Path path) throws IOException {
+        FlowProblem problem = GraphLoader.load(path);
+        assertEquals(source, problem.source, path.toString());
+        assertEquals(sink, problem.sink, path.toString());
+        assertEquals(nodeOffset, problem.nodeOffset, path.toString());
+        assertEquals(graph.getNoOfNodes(), problem.graph.getNoOfNodes(), path.toString());
+        assertEquals(TestGraphs.edges(graph), TestGraphs.edges(problem.graph),
+                path.toString());
+        assertEquals(TestGraphs.expectedFlow(graph, source, sink),
+                new DinicSolver().maxFlow(problem.graph, source, sink), path.toString());
+    }
+
+}
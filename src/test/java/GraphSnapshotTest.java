@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This GraphSnapshotTest class checks that a snapshot maps back to the graph and flow
+ * it was saved from, that the mapped graph can be changed, and that a damaged snapshot
+ * is rejected when it is mapped.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphSnapshotTest {
+
+    @Test
+    public void snapshotKeepsTheGraphAndFlow(@TempDir Path directory) throws IOException {
+        Random random = new Random(4);
+        ResidualGraph graph = TestGraphs.randomGraph(50, 300, 20, random);
+        int maximumFlow = new DinicSolver().maxFlow(graph, 0, 49);
+        Path path = directory.resolve("graph.snapshot");
+        GraphSnapshot.write(path, new FlowProblem(graph, 0, 49, 1), true);
+
+        assertTrue(GraphSnapshot.isSnapshot(path));
+        FlowProblem problem = GraphSnapshot.map(path);
+        ResidualGraph mapped = problem.graph;
+        assertEquals(0, problem.source);
+        assertEquals(49, problem.sink);
+        assertEquals(1, problem.nodeOffset);
+        assertEquals(graph.getNoOfNodes(), mapped.getNoOfNodes());
+        assertEquals(graph.getNoOfArcs(), mapped.getNoOfArcs());
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            assertEquals(graph.firstArc(u), mapped.firstArc(u));
+            assertEquals(graph.forwardEnd(u), mapped.forwardEnd(u));
+        }
+        for (int arc = 0; arc < graph.getNoOfArcs(); arc++) {
+            assertEquals(graph.target(arc), mapped.target(arc));
+            assertEquals(graph.reverse(arc), mapped.reverse(arc));
+            assertEquals(graph.capacity(arc), mapped.capacity(arc));
+            assertEquals(graph.residual(arc), mapped.residual(arc));
+        }
+        assertEquals(maximumFlow, mapped.netFlow(0));
+
+        // The capacities are a copy, so they can be changed without touching the file
+        int arc = mapped.firstArc(0);
+        mapped.setCapacity(arc, 0);
+        assertEquals(0, mapped.capacity(arc));
+        assertEquals(graph.capacity(arc), GraphSnapshot.map(path).graph.capacity(arc));
+        ResidualGraph changed = TestGraphs.copy(mapped);
+        assertEquals(TestGraphs.expectedFlow(changed, 0, 49),
+                new PushRelabelSolver().maxFlow(mapped, 0, 49));
+    }
+
+    @Test
+    public void damagedSnapshotIsRejected(@TempDir Path directory) throws IOException {
+        ResidualGraph graph = TestGraphs.randomGraph(10, 30, 5, new Random(5));
+        Path path = directory.resolve("graph.snapshot");
+        GraphSnapshot.write(path, new FlowProblem(graph, 0, 9, 0), false);
+        byte[] bytes = Files.readAllBytes(path);
+
+        // The header is 8 ints, then the offsets (11 ints) and forward ends (10 ints)
+        int targets = 4 * (8 + 11 + 10);
+        int[][] damages = {
+                {4 * 5, 10}, // The source is not a node
+                {4 * 9, -1}, // The arcs of node 0 end before they start
+                {targets, -1}, // The first arc points outside of the graph
+                {targets + 4 * graph.getNoOfArcs(), 0} // The first arc is its own pair
+        };
+        for (int[] damage : damages) {
+            byte[] damaged = bytes.clone();
+            ByteBuffer.wrap(damaged).order(ByteOrder.LITTLE_ENDIAN).putInt(damage[0],
+                    damage[1]);
+            Path damagedPath = directory.resolve("damaged.snapshot");
+            Files.write(damagedPath, damaged);
+            assertThrows(IOException.class, () -> GraphSnapshot.map(damagedPath));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This GraphStatisticsTest class checks the statistics found on graphs whose structure
+ * is known: a grid, a bipartite matching network and odd and even cycles.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GraphStatisticsTest {
+
+    @Test
+    public void gridIsFound() {
+        GridGraph grid = new GridGraph(6, 5, 4);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 6; x++) {
+                grid.setTerminalCapacities(x, y, 1, 1);
+                for (int direction = 0; direction < 4; direction++) {
+                    if (grid.neighbour(x, y, direction) >= 0) {
+                        grid.setNeighbourCapacity(x, y, direction, 1);
+                    }
+                }
+            }
+        }
+        GraphStatistics statistics = GraphStatistics.of(grid, grid.getSource(),
+                grid.getSink());
+
+        assertEquals(1.0, statistics.gridLikeness);
+        // The loops leading out of the grid are not edges
+        assertEquals(2 * (5 * 5 + 6 * 4) + 2 * 30, statistics.noOfEdges);
+        assertTrue(statistics.unitCapacity);
+        // Every pixel is joined to the source and to its neighbours
+        assertFalse(statistics.bipartite);
+    }
+
+    @Test
+    public void matchingNetworkIsBipartite() {
+        // The source 0 feeds 1 to 3, which are joined to 4 to 6, which feed the sink 7
+        ResidualGraph graph = new ArrayResidualGraph(8, 11,
+                new int[]{0, 0, 0, 1, 1, 2, 3, 3, 4, 5, 6},
+                new int[]{1, 2, 3, 4, 5, 5, 5, 6, 7, 7, 7},
+                new int[]{1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+        GraphStatistics statistics = GraphStatistics.of(graph, 0, 7);
+
+        assertTrue(statistics.bipartite);
+        assertTrue(statistics.unitCapacity);
+        assertEquals(11, statistics.noOfEdges);
+        assertEquals(11 / 56.0, statistics.density);
+    }
+
+    @Test
+    public void onlyEvenCyclesAreBipartite() {
+        assertFalse(GraphStatistics.of(cycle(5), 0, 2).bipartite);
+        assertTrue(GraphStatistics.of(cycle(6), 0, 3).bipartite);
+    }
+
+    /**
+     * @param length The number of nodes of the cycle.
+     * @return ResidualGraph Returns a directed cycle through the nodes in order, with
+     * capacities 1 to length.
+     */
+    private static ResidualGraph cycle(int length) {
+        int[] from = new int[length];
+        int[] to = new int[length];
+        int[] capacity = new int[length];
+        for (int u = 0; u < length; u++) {
+            from[u] = u;
+            to[u] = (u + 1) % length;
+            capacity[u] = u + 1;
+        }
+        return new ArrayResidualGraph(length, length, from, to, capacity);
+    }
+
+}
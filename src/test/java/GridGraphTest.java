@@ -0,0 +1,75 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This GridGraphTest class checks that every solver and every class that copies a
+ * graph handles a GridGraph, whose neighbour edges are pairs of forward arcs and whose
+ * directions out of the grid are loops without capacity.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class GridGraphTest {
+
+    @Test
+    public void everySolverFindsAValidMaximumFlow() throws Exception {
+        Random random = new Random(1);
+        FlowVerifier verifier = new FlowVerifier();
+        String[] names = TestGraphs.solverNames();
+        for (int trial = 0; trial < 60; trial++) {
+            int connectivity = trial % 2 == 0 ? 4 : 8;
+            GridGraph grid = TestGraphs.randomGrid(1 + random.nextInt(6),
+                    1 + random.nextInt(6), connectivity, 10, random);
+            int source = grid.getSource();
+            int sink = grid.getSink();
+            int expected = TestGraphs.expectedFlow(grid, source, sink);
+            List<Supplier<MaxFlowSolver>> solvers = TestGraphs.solvers(grid.getNoOfNodes());
+            for (int i = 0; i < solvers.size(); i++) {
+                String name = names[i] + " on grid " + trial;
+                MaxFlowSolver solver = solvers.get(i).get();
+                int flow = solver.maxFlow(grid, source, sink);
+                TestGraphs.close(solver);
+                assertEquals(expected, flow, name);
+                assertNull(verifier.verify(grid, source, sink, flow), name);
+            }
+        }
+    }
+
+    @Test
+    public void addingAnEdgeKeepsTheFlow() {
+        GridGraph grid = TestGraphs.randomGrid(3, 3, 4, 10, new Random(2));
+        MaximumFlowNetwork network = new MaximumFlowNetwork(grid.getNoOfNodes());
+        int source = grid.getSource();
+        int sink = grid.getSink();
+        network.maxFlow(grid, source, sink);
+
+        // Pixels 0 and 8 are not neighbours, so the edge is new
+        int flow = network.changeCapacity(grid.node(0, 0), grid.node(2, 2), 7);
+        ResidualGraph changed = network.residualGraph;
+        // The loops out of the grid are left out of the copy
+        assertEquals(TestGraphs.copy(grid).getNoOfEdges() + 1, changed.getNoOfEdges());
+        assertEquals(TestGraphs.expectedFlow(changed, source, sink), flow);
+        assertNull(network.verify(source, sink, flow));
+    }
+
+    @Test
+    public void gomoryHuTreeMatchesTheMinimumCuts() {
+        GridGraph grid = TestGraphs.randomGrid(3, 3, 8, 10, new Random(3));
+        GomoryHuTree tree = new GomoryHuTree(grid, DinicSolver::new);
+        ResidualGraph undirected = TestGraphs.undirected(grid);
+        for (int u = 0; u < grid.getNoOfNodes(); u++) {
+            for (int v = u + 1; v < grid.getNoOfNodes(); v++) {
+                assertEquals(TestGraphs.expectedFlow(undirected, u, v), tree.minCut(u, v),
+                        "Cut " + u + " - " + v);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This MaxFlowServiceTest class fires many concurrent queries at one shared graph and
+ * compares each answer with a fresh Edmonds-Karp solve, and checks that closing the
+ * service closes the solvers of its workspaces.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class MaxFlowServiceTest {
+
+    @Test
+    public void concurrentQueriesMatchEdmondsKarp() throws Exception {
+        Random random = new Random(80);
+        ResidualGraph graph = TestGraphs.randomGraph(60, 400, 100, random);
+        int noOfNodes = graph.getNoOfNodes();
+        int[][] queries = new int[500][];
+        for (int i = 0; i < queries.length; i++) {
+            int source = random.nextInt(noOfNodes);
+            int sink = (source + 1 + random.nextInt(noOfNodes - 1)) % noOfNodes;
+            queries[i] = new int[]{source, sink};
+        }
+
+        List<CompletableFuture<Integer>> answers = new ArrayList<>();
+        try (MaxFlowService service = new MaxFlowService(graph, DinicSolver::new, 8)) {
+            for (int[] query : queries) {
+                answers.add(service.maxFlow(query[0], query[1]));
+            }
+            for (int i = 0; i < queries.length; i++) {
+                int source = queries[i][0];
+                int sink = queries[i][1];
+                assertEquals(TestGraphs.expectedFlow(graph, source, sink),
+                        (int) answers.get(i).get(), "Query " + source + " - " + sink);
+            }
+        }
+        // The shared graph is copied, so the given graph holds no flow
+        assertEquals(0, graph.netFlow(0));
+    }
+
+    @Test
+    public void closingClosesTheWorkspaceSolvers() throws Exception {
+        Queue<ParallelPushRelabelSolver> solvers = new ConcurrentLinkedQueue<>();
+        ResidualGraph graph = TestGraphs.randomGraph(30, 150, 20, new Random(81));
+        MaxFlowService service = new MaxFlowService(graph, () -> {
+            ParallelPushRelabelSolver solver = new ParallelPushRelabelSolver(2);
+            solvers.add(solver);
+            return solver;
+        }, 4);
+        List<CompletableFuture<Integer>> answers = new ArrayList<>();
+        for (int i = 1; i < 30; i++) {
+            answers.add(service.maxFlow(0, i));
+        }
+        service.close();
+
+        // Queries started before the service was closed are still answered
+        for (int i = 1; i < 30; i++) {
+            assertEquals(TestGraphs.expectedFlow(graph, 0, i), (int) answers.get(i - 1).get());
+        }
+        ResidualGraph other = TestGraphs.randomGraph(5, 10, 5, new Random(82));
+        for (ParallelPushRelabelSolver solver : solvers) {
+            assertThrows(IllegalStateException.class, () -> solver.maxFlow(other, 0, 4));
+        }
+    }
+
+}
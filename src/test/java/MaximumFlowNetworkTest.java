@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This MaximumFlowNetworkTest class checks that changeCapacity keeps the maximum flow
+ * up to date: after every change the flow must equal the flow Edmonds-Karp finds from
+ * scratch on the changed graph, and be a valid maximum flow.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class MaximumFlowNetworkTest {
+
+    @Test
+    public void changeCapacityMatchesEdmondsKarp() throws Exception {
+        Random random = new Random(8);
+        String[] names = TestGraphs.solverNames();
+        for (int trial = 0; trial < 60; trial++) {
+            int noOfNodes = 2 + random.nextInt(25);
+            ResidualGraph graph = TestGraphs.randomGraph(noOfNodes,
+                    random.nextInt(5 * noOfNodes), 30, random);
+            int source = random.nextInt(noOfNodes);
+            int sink = (source + 1 + random.nextInt(noOfNodes - 1)) % noOfNodes;
+
+            // The first flow may come from any solver
+            int engine = trial % 7;
+            List<Supplier<MaxFlowSolver>> solvers = TestGraphs.solvers(noOfNodes);
+            MaxFlowSolver solver = solvers.get(engine).get();
+            MaximumFlowNetwork network = new MaximumFlowNetwork(noOfNodes);
+            network.maxFlow(graph, source, sink, solver);
+            TestGraphs.close(solver);
+
+            for (int change = 0; change < 30; change++) {
+                String name = names[engine] + " on graph " + trial + ", change " + change;
+                int from = random.nextInt(noOfNodes);
+                int to = random.nextInt(noOfNodes);
+                int capacity;
+                int kind = random.nextInt(4);
+                if (kind == 0) {
+                    capacity = 0; // Delete the edge
+                } else if (kind == 1) {
+                    capacity = random.nextInt(5); // Most likely below the flow of the edge
+                } else {
+                    capacity = random.nextInt(60);
+                }
+                int flow = network.changeCapacity(from, to, capacity);
+                ResidualGraph changed = network.residualGraph;
+                assertEquals(TestGraphs.expectedFlow(changed, source, sink), flow, name);
+                assertNull(network.verify(source, sink, flow), name);
+            }
+        }
+    }
+
+    @Test
+    public void lowerCapacitiesOnTheMinimumCutLowerTheFlow() {
+        // Two paths of capacity 10 from 0 to 3, through 1 and through 2
+        ResidualGraph graph = new ArrayResidualGraph(4, 4, new int[]{0, 1, 0, 2},
+                new int[]{1, 3, 2, 3}, new int[]{10, 10, 10, 10});
+        MaximumFlowNetwork network = new MaximumFlowNetwork(4);
+        assertEquals(20, network.maxFlow(graph, 0, 3));
+        assertEquals(14, network.changeCapacity(1, 3, 4));
+        assertEquals(4, network.deleteEdge(0, 2));
+        // A new edge lets the flow go around the edge with the lower capacity
+        assertEquals(10, network.changeCapacity(1, 2, 6));
+        assertEquals(10, network.changeCapacity(2, 3, 20));
+        assertEquals(14, network.changeCapacity(0, 2, 4));
+        assertNull(network.verify(0, 3, 14));
+    }
+
+    @Test
+    public void changesBeforeASolveAreRejected() {
+        MaximumFlowNetwork network = new MaximumFlowNetwork(4);
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> network.changeCapacity(0, 1, 5));
+        assertEquals("A graph must be solved before its edges can be changed",
+                e.getMessage());
+        assertThrows(IllegalStateException.class, () -> network.deleteEdge(0, 1));
+    }
+
+}
@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This OffHeapGraphBuilderTest class checks that a graph built in a mapped file holds
+ * only the arrays of the graph, and that no staging file is left behind whether the
+ * graph was built or the file failed to load.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class OffHeapGraphBuilderTest {
+
+    @Test
+    public void offHeapGraphsMatchTheHeapGraph(@TempDir Path directory) throws IOException {
+        Random random = new Random(14);
+        Path file = directory.resolve("graph.bin");
+        for (int trial = 0; trial < 20; trial++) {
+            ResidualGraph graph = TestGraphs.randomGraph(2 + random.nextInt(30),
+                    random.nextInt(200), 1000, random);
+            int sink = graph.getNoOfNodes() - 1;
+            Path path = directory.resolve("graph" + trial + ".max");
+            TestGraphs.writeDimacs(path, graph, 0, sink);
+            int expected = TestGraphs.expectedFlow(graph, 0, sink);
+            FlowProblem[] problems = {GraphLoader.load(path, new OffHeapGraphBuilder()),
+                    GraphLoader.load(path, new OffHeapGraphBuilder(file))};
+            for (FlowProblem problem : problems) {
+                String message = (problem == problems[0] ? "Direct" : "Mapped") +
+                        " graph " + trial;
+                assertEquals(TestGraphs.edges(graph), TestGraphs.edges(problem.graph),
+                        message);
+                assertEquals(expected, new DinicSolver().maxFlow(problem.graph, 0, sink),
+                        message);
+            }
+        }
+    }
+
+    @Test
+    public void fileHoldsOnlyTheGraph(@TempDir Path directory) throws IOException {
+        Path path = Paths.get("src", "Graph04.max");
+        FlowProblem expected = GraphLoader.load(path);
+        Path file = directory.resolve("graph.bin");
+        FlowProblem problem = GraphLoader.load(path, new OffHeapGraphBuilder(file));
+
+        ResidualGraph graph = problem.graph;
+        int noOfNodes = graph.getNoOfNodes();
+        // Offsets, forward ends, then targets, reverses, capacities and residuals
+        assertEquals((2L * noOfNodes + 1 + 4L * graph.getNoOfArcs()) * 4, Files.size(file));
+        assertEquals(new DinicSolver().maxFlow(expected.graph, expected.source, expected.sink),
+                new DinicSolver().maxFlow(graph, problem.source, problem.sink));
+        assertEquals(0, stagingFiles(directory));
+    }
+
+    @Test
+    public void failedLoadDeletesTheStagingFile(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("broken.max");
+        Files.write(path, "p max 3 2\nn 1 s\nn 3 t\na 1 2 5\na 2 x 5\n".getBytes());
+        OffHeapGraphBuilder builder = new OffHeapGraphBuilder(directory.resolve("graph.bin"));
+
+        assertThrows(IOException.class, () -> GraphLoader.load(path, builder));
+        assertEquals(0, stagingFiles(directory));
+    }
+
+    /**
+     * @param directory The directory of the graph file.
+     * @return long Returns the number of staging files left in the directory.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private static long stagingFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This ParallelPushRelabelSolverTest class checks the ParallelPushRelabelSolver against
+ * Edmonds-Karp, that one solver can solve many graphs of different sizes with the same
+ * threads and arrays, and that it rejects solves once it has been closed.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ParallelPushRelabelSolverTest {
+
+    /**
+     * Builds a layered graph whose source feeds every node of the first layer, so a
+     * round has enough active nodes to be split between the threads.
+     *
+     * @param width  The number of nodes of each layer.
+     * @param random The random numbers used for the capacities and the edges.
+     * @return ResidualGraph Returns the graph, with the source 0 and the sink last.
+     */
+    private static ResidualGraph layeredGraph(int width, Random random) {
+        int noOfNodes = 2 * width + 2;
+        int noOfEdges = 5 * width;
+        int[] from = new int[noOfEdges];
+        int[] to = new int[noOfEdges];
+        int[] capacity = new int[noOfEdges];
+        int edge = 0;
+        for (int i = 0; i < width; i++) {
+            int first = 1 + i;
+            int second = 1 + width + i;
+            int[][] edges = {{0, first}, {first, second},
+                    {first, 1 + width + random.nextInt(width)},
+                    {second, 1 + random.nextInt(width)}, {second, noOfNodes - 1}};
+            for (int[] e : edges) {
+                from[edge] = e[0];
+                to[edge] = e[1];
+                capacity[edge++] = 1 + random.nextInt(100);
+            }
+        }
+        return new ArrayResidualGraph(noOfNodes, noOfEdges, from, to, capacity);
+    }
+
+    @Test
+    public void matchesEdmondsKarp() {
+        ParallelPushRelabelSolver solver = new ParallelPushRelabelSolver(4);
+        TestGraphs.assertMatchesEdmondsKarp("ParallelPushRelabelSolver", solver, 70);
+        solver.close();
+    }
+
+    @Test
+    public void solverClosedByAnotherThreadRejectsSolves() throws InterruptedException {
+        ParallelPushRelabelSolver solver = new ParallelPushRelabelSolver(2);
+        ResidualGraph graph = layeredGraph(10, new Random(71));
+        solver.maxFlow(graph, 0, 21);
+        Thread closer = new Thread(solver::close);
+        closer.start();
+        closer.join();
+        assertThrows(IllegalStateException.class, () -> solver.maxFlow(graph, 0, 21));
+    }
+
+    @Test
+    public void solvesGraphsOfDifferentSizes() {
+        Random random = new Random(3);
+        FlowVerifier verifier = new FlowVerifier();
+        ParallelPushRelabelSolver solver = new ParallelPushRelabelSolver(4);
+        int[] widths = {3000, 10, 5000, 2000, 1};
+        for (int width : widths) {
+            ResidualGraph graph = layeredGraph(width, random);
+            int sink = graph.getNoOfNodes() - 1;
+            int maximumFlow = solver.maxFlow(graph, 0, sink);
+            assertEquals(TestGraphs.expectedFlow(graph, 0, sink), maximumFlow,
+                    "Width " + width);
+            assertNull(verifier.verify(graph, 0, sink, maximumFlow), "Width " + width);
+        }
+
+        solver.close();
+        ResidualGraph graph = layeredGraph(10, random);
+        assertThrows(IllegalStateException.class, () -> solver.maxFlow(graph, 0, 21));
+    }
+
+}
@@ -0,0 +1,41 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This PushRelabelSolverTest class checks the flows of the PushRelabelSolver against
+ * Edmonds-Karp, and checks that the excess that cannot reach the sink is sent back to
+ * the source, so the graph holds a flow and not only a preflow.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class PushRelabelSolverTest {
+
+    @Test
+    public void matchesEdmondsKarp() {
+        TestGraphs.assertMatchesEdmondsKarp("PushRelabelSolver", new PushRelabelSolver(), 21);
+    }
+
+    @Test
+    public void solvesTheTextbookNetwork() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        assertEquals(23, new PushRelabelSolver().maxFlow(graph, 0, 5));
+    }
+
+    @Test
+    public void excessIsSentBackToTheSource() {
+        // The source can send 1000 into a chain that only lets 3 through to the sink
+        int[] from = {0, 1, 2, 2, 3};
+        int[] to = {1, 2, 3, 4, 4};
+        int[] capacity = {1000, 1000, 1000, 1, 2};
+        ResidualGraph graph = new ArrayResidualGraph(5, 5, from, to, capacity);
+        assertEquals(3, new PushRelabelSolver().maxFlow(graph, 0, 4));
+        for (int u = 1; u < 4; u++) {
+            assertEquals(0, graph.netFlow(u), "Node " + u);
+        }
+        assertEquals(3, graph.flow(graph.findEdge(0, 1)));
+    }
+
+}
@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This ReducingSolverTest class checks that reducing a graph before solving it keeps
+ * its maximum flow, and that the flow found on the reduced graph is expanded back onto
+ * the edges of the given graph.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ReducingSolverTest {
+
+    @Test
+    public void everyEngineMatchesEdmondsKarp() {
+        MaxFlowSolver[] engines = {new MaximumFlowNetwork(1), new DinicSolver(),
+                new PushRelabelSolver(), new CapacityScalingSolver(),
+                new BoykovKolmogorovSolver()};
+        for (int i = 0; i < engines.length; i++) {
+            TestGraphs.assertMatchesEdmondsKarp("Reducing " + engines[i].getName(),
+                    new ReducingSolver(engines[i]), 30 + i);
+        }
+    }
+
+    @Test
+    public void chainOfParallelEdgesBecomesOneEdge() {
+        // Two parallel edges into a chain 1 - 2 - 3, and a node 4 that cannot reach 3
+        int[] from = {0, 0, 1, 2, 0};
+        int[] to = {1, 1, 2, 3, 4};
+        int[] capacity = {5, 3, 6, 10, 7};
+        ResidualGraph graph = new ArrayResidualGraph(5, 5, from, to, capacity);
+        ReducingSolver solver = new ReducingSolver(new DinicSolver());
+
+        int flow = solver.maxFlow(graph, 0, 3);
+        assertEquals(6, flow);
+        assertEquals(1, solver.getReducedGraph().getNoOfEdges());
+        // The flow is expanded back onto the edges of the given graph
+        assertNull(new FlowVerifier().verify(graph, 0, 3, flow));
+        assertEquals(6, graph.flow(graph.findEdge(1, 2)));
+        assertEquals(0, graph.flow(graph.findEdge(0, 4)));
+    }
+
+    @Test
+    public void isNamedAfterItsEngine() {
+        assertEquals("DinicSolver", new ReducingSolver(new DinicSolver()).getName());
+    }
+
+}
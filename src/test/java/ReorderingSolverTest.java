@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This ReorderingSolverTest class checks that every order numbers the nodes with a
+ * permutation that keeps the edges of the graph, and that solving the reordered graph,
+ * alone or behind a ReducingSolver, keeps the maximum flow of the given graph.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ReorderingSolverTest {
+
+    @Test
+    public void everyOrderMatchesEdmondsKarp() {
+        long seed = 40;
+        for (VertexReordering.Order order : VertexReordering.Order.values()) {
+            MaxFlowSolver[] engines = {new DinicSolver(), new PushRelabelSolver(),
+                    new BoykovKolmogorovSolver()};
+            for (MaxFlowSolver engine : engines) {
+                String name = "Reordering " + engine.getName() + " (" + order + ")";
+                TestGraphs.assertMatchesEdmondsKarp(name,
+                        new ReorderingSolver(engine, order), seed++);
+            }
+            TestGraphs.assertMatchesEdmondsKarp("Reducing and reordering (" + order + ")",
+                    new ReducingSolver(new ReorderingSolver(new DinicSolver(), order)),
+                    seed++);
+        }
+    }
+
+    @Test
+    public void reorderedGraphKeepsTheEdges() {
+        Random random = new Random(41);
+        for (int trial = 0; trial < 30; trial++) {
+            ResidualGraph graph = TestGraphs.randomGraph(2 + random.nextInt(30),
+                    random.nextInt(100), 50, random);
+            for (VertexReordering.Order order : VertexReordering.Order.values()) {
+                String message = order + " on graph " + trial;
+                VertexReordering reordering = new VertexReordering(graph, 0, order);
+                ResidualGraph reordered = reordering.getReorderedGraph();
+                boolean[] numbered = new boolean[graph.getNoOfNodes()];
+                for (int u = 0; u < graph.getNoOfNodes(); u++) {
+                    int node = reordering.getNewNode(u);
+                    assertFalse(numbered[node], message);
+                    numbered[node] = true;
+                    assertEquals(u, reordering.getOldNode(node), message);
+                }
+
+                // The edges of the reordered graph, named by the old nodes
+                List<String> edges = new ArrayList<>();
+                for (int u = 0; u < reordered.getNoOfNodes(); u++) {
+                    for (int arc = reordered.firstArc(u); arc < reordered.forwardEnd(u);
+                         arc++) {
+                        edges.add(reordering.getOldNode(u) + " " +
+                                reordering.getOldNode(reordered.target(arc)) + " " +
+                                reordered.capacity(arc));
+                    }
+                }
+                Collections.sort(edges);
+                assertEquals(TestGraphs.edges(graph), edges, message);
+            }
+        }
+    }
+
+    @Test
+    public void isNamedAfterItsEngine() {
+        ParallelPushRelabelSolver parallel = new ParallelPushRelabelSolver(2);
+        MaxFlowSolver solver = new ReducingSolver(new ReorderingSolver(parallel,
+                VertexReordering.Order.DEGREE));
+        assertEquals("ParallelPushRelabelSolver", solver.getName());
+        parallel.close();
+    }
+
+}
@@ -0,0 +1,135 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This ResidualGraphTest class checks the CSR form of a graph built from a matrix:
+ * every edge is a forward arc of its start node paired with a reverse arc of its end
+ * node, pushing flow moves residual capacity between the two, and Edmonds-Karp on the
+ * CSR graph finds the capacity of the minimum cut.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class ResidualGraphTest {
+
+    @Test
+    public void everyEdgeIsAPairOfArcs() {
+        Random random = new Random(12);
+        for (int trial = 0; trial < 30; trial++) {
+            int[][] matrix = randomMatrix(1 + random.nextInt(15), random);
+            ResidualGraph graph = ResidualGraph.fromMatrix(matrix);
+            int noOfNodes = matrix.length;
+            int noOfEdges = 0;
+            for (int u = 0; u < noOfNodes; u++) {
+                for (int v = 0; v < noOfNodes; v++) {
+                    int arc = graph.findEdge(u, v);
+                    if (u == v || matrix[u][v] == 0) {
+                        // Loops and empty cells are left out
+                        assertEquals(-1, arc, "Edge " + u + " - " + v);
+                        continue;
+                    }
+                    noOfEdges++;
+                    assertEquals(matrix[u][v], graph.capacity(arc),
+                            "Edge " + u + " - " + v);
+                    int reverse = graph.reverse(arc);
+                    assertEquals(arc, graph.reverse(reverse));
+                    assertEquals(u, graph.target(reverse));
+                    assertEquals(0, graph.capacity(reverse));
+                    // The reverse arc lies after the forward arcs of the end node
+                    assertTrue(reverse >= graph.forwardEnd(v) && reverse < graph.endArc(v),
+                            "Reverse of " + u + " - " + v);
+                }
+            }
+            assertEquals(noOfEdges, graph.getNoOfEdges());
+            assertEquals(2 * noOfEdges, graph.getNoOfArcs());
+        }
+    }
+
+    @Test
+    public void pushMovesResidualCapacityToTheReverseArc() {
+        ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+        int arc = graph.findEdge(0, 1);
+        graph.push(arc, 10);
+        assertEquals(10, graph.flow(arc));
+        assertEquals(6, graph.residual(arc));
+        assertEquals(10, graph.residual(graph.reverse(arc)));
+        assertEquals(-10, graph.flow(graph.reverse(arc)));
+        assertEquals(10, graph.netFlow(0));
+        assertEquals(-10, graph.netFlow(1));
+
+        graph.reset();
+        assertEquals(0, graph.flow(arc));
+        assertEquals(0, graph.netFlow(1));
+    }
+
+    @Test
+    public void edmondsKarpFindsTheMinimumCut() {
+        assertEquals(23, new MaximumFlowNetwork(6).fordFulkerson(TestGraphs.TEXTBOOK, 0, 5));
+
+        // Every cut of a small graph is tried, so the check does not rely on any solver
+        Random random = new Random(13);
+        FlowVerifier verifier = new FlowVerifier();
+        for (int trial = 0; trial < 100; trial++) {
+            int[][] matrix = randomMatrix(2 + random.nextInt(9), random);
+            int sink = matrix.length - 1;
+            ResidualGraph graph = ResidualGraph.fromMatrix(matrix);
+            int flow = new MaximumFlowNetwork(matrix.length).fordFulkerson(graph, 0, sink);
+            assertEquals(minimumCut(matrix, 0, sink), flow, "Graph " + trial);
+            assertNull(verifier.verify(graph, 0, sink, flow), "Graph " + trial);
+        }
+    }
+
+    /**
+     * Builds a random matrix with about a third of its cells filled.
+     *
+     * @param noOfNodes The number of nodes.
+     * @param random    The random number generator.
+     * @return int[][] Returns the matrix.
+     */
+    private static int[][] randomMatrix(int noOfNodes, Random random) {
+        int[][] matrix = new int[noOfNodes][noOfNodes];
+        for (int u = 0; u < noOfNodes; u++) {
+            for (int v = 0; v < noOfNodes; v++) {
+                if (random.nextInt(3) == 0) {
+                    matrix[u][v] = 1 + random.nextInt(20);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Tries every cut between the source and the sink.
+     *
+     * @param matrix The capacities of the graph.
+     * @param source The source node.
+     * @param sink   The sink node.
+     * @return long Returns the smallest capacity of a cut.
+     */
+    private static long minimumCut(int[][] matrix, int source, int sink) {
+        int noOfNodes = matrix.length;
+        long minimum = Long.MAX_VALUE;
+        for (int set = 0; set < 1 << noOfNodes; set++) {
+            if ((set >> source & 1) == 0 || (set >> sink & 1) != 0) {
+                continue;
+            }
+            long capacity = 0;
+            for (int u = 0; u < noOfNodes; u++) {
+                for (int v = 0; v < noOfNodes; v++) {
+                    if ((set >> u & 1) == 1 && (set >> v & 1) == 0) {
+                        capacity += matrix[u][v];
+                    }
+                }
+            }
+            minimum = Math.min(minimum, capacity);
+        }
+        return minimum;
+    }
+
+}
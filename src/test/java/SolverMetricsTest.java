@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * This SolverMetricsTest class checks that solves run through SolverMetrics.solve move
+ * every counter and phase timer when the metrics are on, and leave them all at zero
+ * when they are off. The switch is read once when SolverMetrics is loaded, so each
+ * setting is tried in a JVM of its own running the Probe below.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+public class SolverMetricsTest {
+
+    @Test
+    public void metricsMoveWhenOn() throws Exception {
+        Map<String, Long> metrics = probe(true);
+        assertEquals(1L, (long) metrics.remove("ENABLED"));
+        assertEquals(SolverMetrics.Counter.values().length +
+                SolverMetrics.Phase.values().length, metrics.size());
+        metrics.forEach((name, value) -> assertTrue(value > 0, name + " did not move"));
+    }
+
+    @Test
+    public void metricsStayAtZeroWhenOff() throws Exception {
+        Map<String, Long> metrics = probe(false);
+        assertEquals(0L, (long) metrics.remove("ENABLED"));
+        assertEquals(SolverMetrics.Counter.values().length +
+                SolverMetrics.Phase.values().length, metrics.size());
+        metrics.forEach((name, value) -> assertEquals(0L, (long) value, name));
+    }
+
+    /**
+     * Runs the Probe in a new JVM with the metrics switched on or off.
+     *
+     * @param enabled The value of the maxflow.metrics property.
+     * @return Map Returns the value of every counter and phase timer by name, and
+     * ENABLED as 1 or 0.
+     * @throws IOException          If the JVM cannot be started.
+     * @throws InterruptedException If the test is interrupted while waiting for it.
+     */
+    private static Map<String, Long> probe(boolean enabled)
+            throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-Dmaxflow.metrics=" + enabled, "-cp",
+                System.getProperty("java.class.path"), Probe.class.getName())
+                .redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals(0, process.waitFor(), output);
+
+        Map<String, Long> metrics = new HashMap<>();
+        for (String line : output.split("\n")) {
+            String[] fields = line.trim().split(" ");
+            if (fields.length == 2) {
+                metrics.put(fields[0], Long.parseLong(fields[1]));
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * This Probe class solves the textbook network with an augmenting path solver and a
+     * push-relabel solver, writes the result, and prints every counter and phase timer.
+     */
+    public static final class Probe {
+
+        /**
+         * This is the main method of the probe.
+         *
+         * @param args Not used.
+         * @throws IOException If the result cannot be written.
+         */
+        public static void main(String[] args) throws IOException {
+            SolverMetrics.reset();
+            ResidualGraph graph = ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK);
+            SolverMetrics.solve(new DinicSolver(), graph, 0, 5);
+            int maximumFlow = SolverMetrics.solve(new PushRelabelSolver(),
+                    ResidualGraph.fromMatrix(TestGraphs.TEXTBOOK), 0, 5);
+            FlowResultWriter.write(Channels.newChannel(OutputStream.nullOutputStream()),
+                    FlowResultWriter.Format.EDGE_LIST, new FlowProblem(graph, 0, 5, 0),
+                    maximumFlow);
+
+            System.out.println("ENABLED " + (SolverMetrics.ENABLED ? 1 : 0));
+            for (SolverMetrics.Counter counter : SolverMetrics.Counter.values()) {
+                System.out.println(counter + " " + SolverMetrics.getCount(counter));
+            }
+            for (SolverMetrics.Phase phase : SolverMetrics.Phase.values()) {
+                System.out.println(phase + " " + SolverMetrics.getNanos(phase));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,282 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * This TestGraphs class builds the graphs and solvers shared by the tests.
+ *
+ * @author Shiromi Basil
+ * @version 1.0
+ * @since 2020-03-05
+ */
+final class TestGraphs {
+    // The network of Cormen et al. with a maximum flow of 23 from node 0 to node 5
+    static final int[][] TEXTBOOK = {
+            {0, 16, 13, 0, 0, 0},
+            {0, 0, 10, 12, 0, 0},
+            {0, 4, 0, 0, 14, 0},
+            {0, 0, 9, 0, 0, 20},
+            {0, 0, 0, 7, 0, 4},
+            {0, 0, 0, 0, 0, 0}};
+
+    private TestGraphs() {
+    }
+
+    /**
+     * @return String[] Returns the names of the solvers returned by solvers(), in order.
+     */
+    static String[] solverNames() {
+        return new String[]{"Edmonds-Karp", "Dinic", "Push-relabel",
+                "Parallel push-relabel", "Capacity scaling", "Boykov-Kolmogorov",
+                "Adaptive", "Reducing Dinic", "Reordering push-relabel (BFS)",
+                "Reordering Boykov-Kolmogorov (RCM)", "Reordering Dinic (degree)"};
+    }
+
+    /**
+     * Creates one of every solver and wrapper.
+     *
+     * @param noOfNodes The number of nodes of the graphs they solve.
+     * @return List Returns a factory of each solver, named by solverNames().
+     */
+    static List<Supplier<MaxFlowSolver>> solvers(int noOfNodes) {
+        return Arrays.asList(
+                () -> new MaximumFlowNetwork(noOfNodes),
+                DinicSolver::new,
+                PushRelabelSolver::new,
+                () -> new ParallelPushRelabelSolver(4),
+                CapacityScalingSolver::new,
+                BoykovKolmogorovSolver::new,
+                AdaptiveSolver::new,
+                () -> new ReducingSolver(new DinicSolver()),
+                () -> new ReorderingSolver(new PushRelabelSolver(),
+                        VertexReordering.Order.BFS),
+                () -> new ReorderingSolver(new BoykovKolmogorovSolver(),
+                        VertexReordering.Order.REVERSE_CUTHILL_MCKEE),
+                () -> new ReorderingSolver(new DinicSolver(),
+                        VertexReordering.Order.DEGREE));
+    }
+
+    /**
+     * Releases the threads of a solver that keeps them between solves.
+     *
+     * @param solver The solver, which cannot be used again.
+     * @throws Exception If the solver cannot be closed.
+     */
+    static void close(MaxFlowSolver solver) throws Exception {
+        if (solver instanceof AutoCloseable) {
+            ((AutoCloseable) solver).close();
+        }
+    }
+
+    /**
+     * Builds a random graph. Parallel edges and edges in both directions may appear.
+     *
+     * @param noOfNodes   The number of nodes.
+     * @param noOfEdges   The number of edges.
+     * @param maxCapacity The largest capacity of an edge.
+     * @param random      The random number generator.
+     * @return ResidualGraph Returns the graph.
+     */
+    static ResidualGraph randomGraph(int noOfNodes, int noOfEdges, int maxCapacity,
+                                     Random random) {
+        int[] from = new int[noOfEdges];
+        int[] to = new int[noOfEdges];
+        int[] capacity = new int[noOfEdges];
+        for (int edge = 0; edge < noOfEdges; edge++) {
+            from[edge] = random.nextInt(noOfNodes);
+            to[edge] = (from[edge] + 1 + random.nextInt(noOfNodes - 1)) % noOfNodes;
+            capacity[edge] = random.nextInt(maxCapacity + 1);
+        }
+        return new ArrayResidualGraph(noOfNodes, noOfEdges, from, to, capacity);
+    }
+
+    /**
+     * Builds a grid with random capacities on every edge.
+     *
+     * @param width        The number of pixels in a row.
+     * @param height       The number of rows.
+     * @param connectivity The number of neighbours of a pixel, 4 or 8.
+     * @param maxCapacity  The largest capacity of an edge.
+     * @param random       The random number generator.
+     * @return GridGraph Returns the grid.
+     */
+    static GridGraph randomGrid(int width, int height, int connectivity, int maxCapacity,
+                                Random random) {
+        GridGraph grid = new GridGraph(width, height, connectivity);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                grid.setTerminalCapacities(x, y, random.nextInt(maxCapacity + 1),
+                        random.nextInt(maxCapacity + 1));
+                for (int direction = 0; direction < connectivity; direction++) {
+                    if (grid.neighbour(x, y, direction) >= 0) {
+                        grid.setNeighbourCapacity(x, y, direction,
+                                random.nextInt(maxCapacity + 1));
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Copies the edges of a graph into an ArrayResidualGraph, leaving out the loops.
+     *
+     * @param graph The graph to copy.
+     * @return ResidualGraph Returns the copy.
+     */
+    static ResidualGraph copy(ResidualGraph graph) {
+        int noOfEdges = 0;
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                if (graph.target(arc) != u) {
+                    noOfEdges++;
+                }
+            }
+        }
+        int[] from = new int[noOfEdges];
+        int[] to = new int[noOfEdges];
+        int[] capacity = new int[noOfEdges];
+        int edge = 0;
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                if (graph.target(arc) != u) {
+                    from[edge] = u;
+                    to[edge] = graph.target(arc);
+                    capacity[edge] = graph.capacity(arc);
+                    edge++;
+                }
+            }
+        }
+        return new ArrayResidualGraph(graph.getNoOfNodes(), edge, from, to, capacity);
+    }
+
+    /**
+     * Copies the edges of a graph into an ArrayResidualGraph with an edge in each
+     * direction for every edge, leaving out the loops.
+     *
+     * @param graph The graph to copy.
+     * @return ResidualGraph Returns the undirected copy.
+     */
+    static ResidualGraph undirected(ResidualGraph graph) {
+        ResidualGraph directed = copy(graph);
+        int noOfEdges = directed.getNoOfEdges();
+        int[] from = new int[2 * noOfEdges];
+        int[] to = new int[2 * noOfEdges];
+        int[] capacity = new int[2 * noOfEdges];
+        int edge = 0;
+        for (int u = 0; u < directed.getNoOfNodes(); u++) {
+            for (int arc = directed.firstArc(u); arc < directed.forwardEnd(u); arc++) {
+                from[edge] = u;
+                to[edge] = directed.target(arc);
+                capacity[edge++] = directed.capacity(arc);
+                from[edge] = directed.target(arc);
+                to[edge] = u;
+                capacity[edge++] = directed.capacity(arc);
+            }
+        }
+        return new ArrayResidualGraph(directed.getNoOfNodes(), edge, from, to, capacity);
+    }
+
+    /**
+     * @param graph The graph.
+     * @return List Returns every edge as "from to capacity", sorted.
+     */
+    static List<String> edges(ResidualGraph graph) {
+        List<String> edges = new ArrayList<>();
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                edges.add(u + " " + graph.target(arc) + " " + graph.capacity(arc));
+            }
+        }
+        Collections.sort(edges);
+        return edges;
+    }
+
+    /**
+     * Writes a graph as a DIMACS max-flow file.
+     *
+     * @param path   The file.
+     * @param graph  The graph.
+     * @param source The source node.
+     * @param sink   The sink node.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeDimacs(Path path, ResidualGraph graph, int source, int sink)
+            throws IOException {
+        StringBuilder text = new StringBuilder("c A test graph\n");
+        text.append("p max ").append(graph.getNoOfNodes()).append(' ')
+                .append(graph.getNoOfEdges()).append('\n');
+        text.append("n ").append(source + 1).append(" s\nn ").append(sink + 1)
+                .append(" t\n");
+        for (int u = 0; u < graph.getNoOfNodes(); u++) {
+            for (int arc = graph.firstArc(u); arc < graph.forwardEnd(u); arc++) {
+                text.append("a ").append(u + 1).append(' ').append(graph.target(arc) + 1)
+                        .append(' ').append(graph.capacity(arc)).append('\n');
+            }
+        }
+        Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Solves random graphs and grids with one solver and compares every flow with the
+     * flow of Edmonds-Karp. Every flow must also pass the checks of the FlowVerifier.
+     * The same solver solves every graph, so the arrays it keeps between solves of
+     * graphs of different sizes are checked as well.
+     *
+     * @param name   The name of the solver, for the messages.
+     * @param solver The solver.
+     * @param seed   The seed of the random graphs.
+     */
+    static void assertMatchesEdmondsKarp(String name, MaxFlowSolver solver, long seed) {
+        Random random = new Random(seed);
+        FlowVerifier verifier = new FlowVerifier();
+        for (int trial = 0; trial < 160; trial++) {
+            ResidualGraph graph;
+            int source;
+            int sink;
+            if (trial % 4 != 3) {
+                int noOfNodes = 2 + random.nextInt(40);
+                // From a few edges up to a dense graph with parallel edges
+                int noOfEdges = random.nextInt(noOfNodes * (1 + random.nextInt(noOfNodes)));
+                graph = randomGraph(noOfNodes, noOfEdges, trial % 3 == 0 ? 1 : 1000, random);
+                source = random.nextInt(noOfNodes);
+                sink = (source + 1 + random.nextInt(noOfNodes - 1)) % noOfNodes;
+            } else {
+                GridGraph grid = randomGrid(1 + random.nextInt(6), 1 + random.nextInt(6),
+                        trial % 8 == 3 ? 4 : 8, 20, random);
+                graph = grid;
+                source = grid.getSource();
+                sink = grid.getSink();
+            }
+            String message = name + " on graph " + trial;
+            int flow = solver.maxFlow(graph, source, sink);
+            assertEquals(expectedFlow(graph, source, sink), flow, message);
+            assertNull(verifier.verify(graph, source, sink, flow), message);
+        }
+    }
+
+    /**
+     * Finds the maximum flow of a copy of the graph with Edmonds-Karp, which every
+     * other solver is compared against.
+     *
+     * @param graph  The graph.
+     * @param source The source node.
+     * @param sink   The sink node.
+     * @return int Returns the maximum flow.
+     */
+    static int expectedFlow(ResidualGraph graph, int source, int sink) {
+        return new MaximumFlowNetwork(graph.getNoOfNodes()).maxFlow(copy(graph), source,
+                sink);
+    }
+
+}